@@ -1,8 +1,10 @@
 import edu.odu.cs.cs417.GlobalLeastSquares;
+import edu.odu.cs.cs417.PolynomialLeastSquares;
 import edu.odu.cs.cs417.TemperatureParser;
 import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -12,9 +14,29 @@ import java.util.List;
 public class GlobalLeastSquaresDriver {
     
     public static void main(String[] args) {
+        // Optional --degree K for a polynomial fit (0 means not requested)
+        int degree = 0;
+        for (int argIdx = 0; argIdx < args.length; argIdx++) {
+            if (args[argIdx].equals("--degree") && argIdx + 1 < args.length) {
+                try {
+                    degree = Integer.parseInt(args[++argIdx]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Error! --degree needs a whole number: " + args[argIdx]);
+                    System.exit(1);
+                }
+                if (degree < 1) {
+                    System.err.println("Error! --degree must be at least 1: " + args[argIdx]);
+                    System.exit(1);
+                }
+            } else {
+                System.err.println("Error! Unrecognized argument: " + args[argIdx]);
+                System.exit(1);
+            }
+        }
+        
         try {
             // Read the sample input file
-            BufferedReader reader = new BufferedReader(new FileReader("sample_input.txt"));
+            BufferedReader reader = TemperatureParser.openTemps(new File("sample_input.txt"));
             List<TemperatureParser.CoreTempReading> readings = TemperatureParser.parseRawTemps(reader);
             reader.close();
             
@@ -23,6 +45,13 @@ public class GlobalLeastSquaresDriver {
                 return;
             }
             
+            // A degree-k fit needs more than k readings
+            if (degree > readings.size() - 1) {
+                System.err.println("Error! --degree must be at most " + (readings.size() - 1)
+                                   + " for the " + readings.size() + " readings in sample_input.txt");
+                System.exit(1);
+            }
+            
             // Extract time steps and temperature data
             int[] times = new int[readings.size()];
             int numCores = readings.get(0).readings.length;
@@ -71,8 +100,28 @@ public class GlobalLeastSquaresDriver {
                 System.out.printf("Core %d: y = %.4f + %.4f * x%n", i, coefficients[0], coefficients[1]);
             }
             
+            if (degree > 0) {
+                System.out.println();
+                System.out.println("Polynomial Least Squares Results (degree " + degree + "):");
+                System.out.println("===========================================");
+                PolynomialLeastSquares.PolynomialFit[] fits =
+                    PolynomialLeastSquares.fitAllCores(times, coreReadings, degree);
+                for (int i = 0; i < numCores; i++) {
+                    System.out.printf("Core %d: y =", i);
+                    for (int j = 0; j <= degree; j++) {
+                        System.out.printf(" %+.4f t^%d", fits[i].coefficients[j], j);
+                    }
+                    System.out.printf("  (t = (x - %.1f) / %.1f)%n", fits[i].center, fits[i].scale);
+                }
+            }
+            
         } catch (IOException e) {
             System.err.println("Error reading sample_input.txt: " + e.getMessage());
+            System.exit(1);
+        } catch (UncheckedIOException e) {
+            // a corrupt or truncated gzip file only shows up while reading
+            System.err.println("Error reading sample_input.txt: " + e.getCause().getMessage());
+            System.exit(1);
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
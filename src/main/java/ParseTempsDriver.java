@@ -1,12 +1,20 @@
 import java.util.List;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import static edu.odu.cs.cs417.TemperatureParser.CoreTempReading;
 import static edu.odu.cs.cs417.TemperatureParser.parseRawTemps;
+import static edu.odu.cs.cs417.TemperatureParser.openTemps;
 import static edu.odu.cs.cs417.PiecewiseInterpolator.computeInterpolation;
+import static edu.odu.cs.cs417.PiecewiseInterpolator.computeAdaptiveInterpolation;
+import static edu.odu.cs.cs417.Downsampler.downsample;
+import edu.odu.cs.cs417.StreamingSplineInterpolator;
+import edu.odu.cs.cs417.CoreCorrelation;
+import edu.odu.cs.cs417.ThermalEventDetector;
+import edu.odu.cs.cs417.PipelinedInterpolator;
 
 /**
  * A simple command line test driver for TemperatureParser.
@@ -16,21 +24,116 @@ public class ParseTempsDriver {
     /**
      * The main function used to demonstrate the TemperatureParser class.
      *
-     * @param args used to pass in a single filename
+     * @param args used to pass in a filename, optionally followed by
+     *     --downsample N to keep only N (at least 3) points per core, or
+     *     --max-error E for adaptive segments within E degrees, or
+     *     --streaming-spline for cubic splines of traces too large for memory, or
+     *     --pipeline [--batch-size N] to overlap parsing, math and file output.
+     *     --streaming-spline and --pipeline read the file themselves, so they
+     *     cannot be combined with each other or with the other analysis flags.
+     *     --correlation also writes the core-by-core correlation matrix.
+     *     --threshold T also writes thermal events (crossings of T, maxima,
+     *     fastest heat-up) found from the cubic splines.
+     *     --decompress-thread decompresses gzip input on a separate thread.
+     *     Gzip-compressed input files are detected automatically.
      */
     public static void main(String[] args)
     {
         BufferedReader tFileStream = null;
 
         //confirm CL (command-line) argument was given
-        if (args.length != 1) {
+        if (args.length < 1) {
         System.err.println("Error: No input filename provided as Command Line argument.");
         System.exit(1); // Exit with error code
         }
 
+        // Optional flags after the filename
+        int downsamplePoints = 0; // 0 means keep every reading
+        double maxError = Double.NaN; // NaN means one segment per reading interval
+        boolean streamingSpline = false;
+        boolean pipeline = false;
+        int batchSize = 0; // 0 means PipelinedInterpolator.DEFAULT_BATCH_SIZE
+        boolean correlation = false;
+        double threshold = Double.NaN; // NaN means no thermal event detection
+        boolean decompressThread = false;
+        int argIdx = 1;
+        try {
+            for (; argIdx < args.length; ++argIdx) {
+                if (args[argIdx].equals("--downsample") && argIdx + 1 < args.length) {
+                    downsamplePoints = Integer.parseInt(args[++argIdx]);
+                    // LTTB always keeps the first and last readings plus one per bucket
+                    if (downsamplePoints < 3) {
+                        System.err.println("Error! --downsample must be at least 3: " + args[argIdx]);
+                        System.exit(1);
+                    }
+                }
+                else if (args[argIdx].equals("--max-error") && argIdx + 1 < args.length) {
+                    maxError = Double.parseDouble(args[++argIdx]);
+                    if (!(maxError >= 0)) {
+                        System.err.println("Error! --max-error must be zero or more: " + args[argIdx]);
+                        System.exit(1);
+                    }
+                }
+                else if (args[argIdx].equals("--streaming-spline")) {
+                    streamingSpline = true;
+                }
+                else if (args[argIdx].equals("--pipeline")) {
+                    pipeline = true;
+                }
+                else if (args[argIdx].equals("--batch-size") && argIdx + 1 < args.length) {
+                    batchSize = Integer.parseInt(args[++argIdx]);
+                    if (batchSize < 1) {
+                        System.err.println("Error! --batch-size must be at least 1: " + args[argIdx]);
+                        System.exit(1);
+                    }
+                }
+                else if (args[argIdx].equals("--correlation")) {
+                    correlation = true;
+                }
+                else if (args[argIdx].equals("--threshold") && argIdx + 1 < args.length) {
+                    threshold = Double.parseDouble(args[++argIdx]);
+                    // NaN is the "no detection" sentinel, so it cannot be a threshold
+                    if (Double.isNaN(threshold)) {
+                        System.err.println("Error! --threshold must be a temperature: " + args[argIdx]);
+                        System.exit(1);
+                    }
+                }
+                else if (args[argIdx].equals("--decompress-thread")) {
+                    decompressThread = true;
+                }
+                else {
+                    System.err.println("Error! Unrecognized argument: " + args[argIdx]);
+                    System.exit(1);
+                }
+            }
+        }
+        catch (NumberFormatException e) {
+            System.err.println("Error! " + args[argIdx - 1] + " needs a number: " + args[argIdx]);
+            System.exit(1);
+        }
+
+        if (downsamplePoints > 0 && !Double.isNaN(maxError)) {
+            System.err.println("Error! --downsample and --max-error cannot be used together.");
+            System.exit(1);
+        }
+
+        // --streaming-spline and --pipeline never build the in-memory arrays
+        // the other analyses need
+        boolean otherAnalysis = downsamplePoints > 0 || !Double.isNaN(maxError)
+                                || correlation || !Double.isNaN(threshold);
+        if ((streamingSpline || pipeline) && (otherAnalysis || (streamingSpline && pipeline))) {
+            System.err.println("Error! --streaming-spline and --pipeline cannot be combined with each other"
+                               + " or with --downsample, --max-error, --correlation or --threshold.");
+            System.exit(1);
+        }
+        if (batchSize > 0 && !pipeline) {
+            System.err.println("Error! --batch-size can only be used with --pipeline.");
+            System.exit(1);
+        }
+
         // Parse command line argument 1
         try {
-            tFileStream = new BufferedReader(new FileReader(new File(args[0])));
+            tFileStream = openTemps(new File(args[0]), decompressThread);
         }
         //this catch is not needed bc of the if added above, since ArrayIndex... only checks a CL input error after it 
         //already occured whereas my if statement prevents the error by confirming there is exactly one argument before moving on
@@ -41,8 +144,54 @@ public class ParseTempsDriver {
             System.err.println("Error! The following file was not found: " + args[0]);
             System.exit(1);
         }
+        catch (IOException e) {
+            System.err.println("Error! The following file could not be read: " + args[0]);
+            System.exit(1);
+        }
 
-        List<CoreTempReading> allTheTemps = parseRawTemps(tFileStream);
+        //----------------------------------------------------------------------
+        // Streaming cubic spline reads the file itself, one line at a time
+        //----------------------------------------------------------------------
+        if (streamingSpline) {
+            try {
+                StreamingSplineInterpolator.computeCubicSpline(tFileStream, 30);
+            }
+            catch (IOException e) {
+                System.err.println("Error! Streaming cubic spline failed: " + e.getMessage());
+                System.exit(1);
+            }
+            System.out.println("Cubic spline results written to separate files (core0.txt, core1.txt, ...)");
+            return;
+        }
+
+        //----------------------------------------------------------------------
+        // Pipelined piecewise interpolation also reads the file itself
+        //----------------------------------------------------------------------
+        if (pipeline) {
+            try {
+                PipelinedInterpolator.computeInterpolation(
+                    tFileStream, 30,
+                    (batchSize > 0) ? batchSize : PipelinedInterpolator.DEFAULT_BATCH_SIZE,
+                    PipelinedInterpolator.DEFAULT_QUEUE_CAPACITY);
+            }
+            catch (IOException e) {
+                System.err.println("Error! Pipelined interpolation failed: " + e.getMessage());
+                System.exit(1);
+            }
+            System.out.println("Interpolation results written to separate files (core0.txt, core1.txt, ...)");
+            return;
+        }
+
+        List<CoreTempReading> allTheTemps = null;
+        try {
+            allTheTemps = parseRawTemps(tFileStream);
+        }
+        // a corrupt or truncated gzip file only shows up while reading
+        catch (UncheckedIOException e) {
+            System.err.println("Error! The following file could not be read: " + args[0]
+                               + ": " + e.getCause().getMessage());
+            System.exit(1);
+        }
 
         // for (CoreTempReading aReading : allTheTemps) {
         //     System.out.println(aReading);
@@ -81,7 +230,31 @@ public class ParseTempsDriver {
         //----------------------------------------------------------------------
         // Piecewise Linear Interpolation
         //----------------------------------------------------------------------
-        computeInterpolation(times, coreReadings);
+        if (!Double.isNaN(maxError)) {
+            computeAdaptiveInterpolation(times, coreReadings, maxError);
+        }
+        else if (downsamplePoints > 0) {
+            computeInterpolation(downsample(times, coreReadings, downsamplePoints));
+        }
+        else {
+            computeInterpolation(times, coreReadings);
+        }
         System.out.println("Interpolation results written to separate files (core0.txt, core1.txt, core2.txt, core3.txt)");
+
+        //----------------------------------------------------------------------
+        // Cross-core correlation
+        //----------------------------------------------------------------------
+        if (correlation) {
+            CoreCorrelation.computeCorrelation(coreReadings);
+            System.out.println("Correlation and covariance matrices written to correlation.txt");
+        }
+
+        //----------------------------------------------------------------------
+        // Thermal events from the cubic splines
+        //----------------------------------------------------------------------
+        if (!Double.isNaN(threshold)) {
+            ThermalEventDetector.computeThermalEvents(times, coreReadings, threshold);
+            System.out.println("Thermal events written to thermal-events.txt");
+        }
     }
 }
@@ -0,0 +1,216 @@
+package edu.odu.cs.cs417;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.stream.IntStream;
+
+/**
+ * This class computes the core-by-core covariance and Pearson correlation
+ * matrices, showing which CPU cores heat up together.
+ *
+ * The cross products are computed in tiles:
+ * 1. The cores are split into tiles of TILE_CORES cores
+ * 2. Each pair of tiles (upper triangle only, the matrices are symmetric)
+ *    is an independent task, and the tasks run in parallel
+ * 3. Within a task the readings are walked in blocks of BLOCK_ROWS, so the
+ *    rows of both tiles stay in cache while every pair in the tile uses them
+ *
+ * Each core's readings are shifted by its first reading before multiplying,
+ * which avoids the cancellation of the one-pass sum of squares formula.
+ *
+ * A core whose readings never change has zero variance, so its Pearson
+ * correlation is undefined (0/0). Such a core is written with 1 on the
+ * diagonal and 0 against every other core (it does not move with them),
+ * and is listed in the header of correlation.txt.
+ */
+public class CoreCorrelation {
+
+    /**
+     * Number of cores in one tile.
+     */
+    private static final int TILE_CORES = 16;
+
+    /**
+     * Number of readings processed per block within a tile.
+     */
+    private static final int BLOCK_ROWS = 1024;
+
+    /**
+     * The covariance and Pearson correlation matrices, both indexed
+     * [core][core].
+     */
+    public static class CorrelationMatrices {
+        /**
+         * Sample covariance between each pair of cores.
+         */
+        public double[][] covariance;
+
+        /**
+         * Pearson correlation between each pair of cores. A zero-variance
+         * core has 1 on the diagonal and 0 everywhere else in its row and
+         * column.
+         */
+        public double[][] correlation;
+
+        /**
+         * Create the pair of matrices.
+         *
+         * @param theCovariance sample covariance matrix
+         * @param theCorrelation Pearson correlation matrix
+         */
+        public CorrelationMatrices(double[][] theCovariance, double[][] theCorrelation) {
+            this.covariance = theCovariance;
+            this.correlation = theCorrelation;
+        }
+    }
+
+    /**
+     * Compute the correlation matrices and write them to correlation.txt.
+     *
+     * @param coreReadings Array of temperature readings [core][time]
+     */
+    public static void computeCorrelation(double[][] coreReadings) {
+        if (coreReadings.length == 0 || coreReadings[0].length < 2) {
+            System.out.println("Nothing to correlate, check parser!");
+            return;
+        }
+
+        CorrelationMatrices matrices = computeCorrelationMatrices(coreReadings);
+        String filename = "correlation.txt";
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+            StringBuilder constantCores = new StringBuilder();
+            for (int coreIdx = 0; coreIdx < matrices.covariance.length; coreIdx++) {
+                if (!(matrices.covariance[coreIdx][coreIdx] > 0.0)) {
+                    constantCores.append(' ').append(coreIdx);
+                }
+            }
+            if (constantCores.length() > 0) {
+                writer.println("# zero variance (correlation written as 0 with other cores):" + constantCores);
+            }
+
+            writer.println("# Pearson correlation [core][core]");
+            writeMatrix(writer, matrices.correlation);
+            writer.println("# covariance [core][core]");
+            writeMatrix(writer, matrices.covariance);
+        } catch (IOException e) {
+            System.err.println("Error writing to file " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compute the covariance and Pearson correlation matrices.
+     *
+     * @param coreReadings Array of temperature readings [core][time]
+     * @return the covariance and correlation matrices (see the class comment
+     *         for cores with zero variance)
+     */
+    public static CorrelationMatrices computeCorrelationMatrices(double[][] coreReadings) {
+        final int numberOfCores = coreReadings.length;
+        final int n = coreReadings[0].length;
+
+        // Shift each core by its first reading
+        final double[] shifts = new double[numberOfCores];
+        final double[] sums = new double[numberOfCores];
+
+        IntStream.range(0, numberOfCores).parallel().forEach(coreIdx -> {
+            double[] temps = coreReadings[coreIdx];
+            double shift = temps[0];
+            double sum = 0.0;
+            for (int i = 0; i < n; i++) {
+                sum += temps[i] - shift;
+            }
+            shifts[coreIdx] = shift;
+            sums[coreIdx] = sum;
+        });
+
+        // Enumerate the tile pairs in the upper triangle
+        final int numberOfTiles = (numberOfCores + TILE_CORES - 1) / TILE_CORES;
+        final int[] tileRows = new int[numberOfTiles * (numberOfTiles + 1) / 2];
+        final int[] tileCols = new int[tileRows.length];
+        int pair = 0;
+        for (int tileI = 0; tileI < numberOfTiles; tileI++) {
+            for (int tileJ = tileI; tileJ < numberOfTiles; tileJ++) {
+                tileRows[pair] = tileI;
+                tileCols[pair] = tileJ;
+                pair++;
+            }
+        }
+
+        final double[][] covariance = new double[numberOfCores][numberOfCores];
+
+        // Each tile pair writes to its own cells, so no locking is needed
+        IntStream.range(0, tileRows.length).parallel().forEach(p -> {
+            int startI = tileRows[p] * TILE_CORES;
+            int endI = Math.min(startI + TILE_CORES, numberOfCores);
+            int startJ = tileCols[p] * TILE_CORES;
+            int endJ = Math.min(startJ + TILE_CORES, numberOfCores);
+
+            double[][] products = new double[endI - startI][endJ - startJ];
+
+            for (int blockStart = 0; blockStart < n; blockStart += BLOCK_ROWS) {
+                int blockEnd = Math.min(blockStart + BLOCK_ROWS, n);
+
+                for (int ci = startI; ci < endI; ci++) {
+                    double[] x = coreReadings[ci];
+                    double shiftX = shifts[ci];
+
+                    for (int cj = Math.max(ci, startJ); cj < endJ; cj++) {
+                        double[] y = coreReadings[cj];
+                        double shiftY = shifts[cj];
+
+                        double dot = 0.0;
+                        for (int r = blockStart; r < blockEnd; r++) {
+                            dot += (x[r] - shiftX) * (y[r] - shiftY);
+                        }
+                        products[ci - startI][cj - startJ] += dot;
+                    }
+                }
+            }
+
+            for (int ci = startI; ci < endI; ci++) {
+                for (int cj = Math.max(ci, startJ); cj < endJ; cj++) {
+                    double cov = (products[ci - startI][cj - startJ] - sums[ci] * sums[cj] / n) / (n - 1);
+                    covariance[ci][cj] = cov;
+                    covariance[cj][ci] = cov;
+                }
+            }
+        });
+
+        double[][] correlation = new double[numberOfCores][numberOfCores];
+        for (int ci = 0; ci < numberOfCores; ci++) {
+            for (int cj = 0; cj < numberOfCores; cj++) {
+                if (ci == cj) {
+                    correlation[ci][cj] = 1.0;
+                }
+                else if (covariance[ci][ci] > 0.0 && covariance[cj][cj] > 0.0) {
+                    correlation[ci][cj] = covariance[ci][cj]
+                        / Math.sqrt(covariance[ci][ci] * covariance[cj][cj]);
+                }
+                else {
+                    // A constant core does not move with any other core
+                    correlation[ci][cj] = 0.0;
+                }
+            }
+        }
+
+        return new CorrelationMatrices(covariance, correlation);
+    }
+
+    /**
+     * Write a matrix with one row per line.
+     *
+     * @param writer PrintWriter for output
+     * @param matrix matrix to write
+     */
+    private static void writeMatrix(PrintWriter writer, double[][] matrix) {
+        for (int row = 0; row < matrix.length; row++) {
+            writer.printf("%4d :", row);
+            for (int col = 0; col < matrix[row].length; col++) {
+                writer.printf(" %9.4f", matrix[row][col]);
+            }
+            writer.println();
+        }
+    }
+}
@@ -98,8 +98,7 @@ public class CubicSplineInterpolator {
             
             // Now compute and write cubic spline interpolation
             if (n >= 2) {
-                double[] secondDerivatives = computeCubicSplineCoefficients(times, coreTemps);
-                writeCubicSplineSegments(writer, times, coreTemps, secondDerivatives);
+                writeCubicSplineSegments(writer, times, computeSegmentCoefficients(times, coreTemps));
             }
             
         } catch (IOException e) {
@@ -107,6 +106,44 @@ public class CubicSplineInterpolator {
         }
     }
     
+    /**
+     * Compute the coefficients of every cubic spline segment for one core,
+     * in the shifted form S(x) = a + b(x-x1) + c(x-x1)^2 + d(x-x1)^3
+     * where x1 is the start of the segment.
+     * 
+     * @param times Array of time steps
+     * @param temps Array of temperature readings
+     * @return Arrays {a, b, c, d}, each with one entry per segment
+     */
+    public static double[][] computeSegmentCoefficients(int[] times, double[] temps) {
+        int n = times.length;
+        if (n < 2) {
+            return new double[4][0];
+        }
+        
+        double[] secondDerivatives = computeCubicSplineCoefficients(times, temps);
+        double[][] coefficients = new double[4][n - 1];
+        
+        for (int i = 0; i < n - 1; i++) {
+            double x1 = times[i];
+            double y1 = temps[i];
+            double x2 = times[i + 1];
+            double y2 = temps[i + 1];
+            
+            double h = x2 - x1;
+            double M1 = secondDerivatives[i];
+            double M2 = secondDerivatives[i + 1];
+            
+            // Compute cubic spline coefficients: S(x) = a + b(x-x1) + c(x-x1)^2 + d(x-x1)^3
+            coefficients[0][i] = y1;
+            coefficients[1][i] = (y2 - y1) / h - h * (2 * M1 + M2) / 6.0;
+            coefficients[2][i] = M1 / 2.0;
+            coefficients[3][i] = (M2 - M1) / (6.0 * h);
+        }
+        
+        return coefficients;
+    }
+    
     /**
      * Compute the second derivatives needed for cubic spline interpolation.
      * Uses natural boundary conditions (second derivative = 0 at endpoints).
@@ -202,32 +239,23 @@ public class CubicSplineInterpolator {
      * 
      * @param writer PrintWriter for output
      * @param times Array of time steps
-     * @param temps Array of temperature readings
-     * @param secondDerivatives Array of second derivatives
+     * @param coefficients Segment coefficients {a, b, c, d} from computeSegmentCoefficients
      */
-    private static void writeCubicSplineSegments(PrintWriter writer, int[] times, 
-                                                double[] temps, double[] secondDerivatives) {
+    private static void writeCubicSplineSegments(PrintWriter writer, int[] times, double[][] coefficients) {
         int n = times.length;
         
         for (int i = 0; i < n - 1; i++) {
-            double x1 = times[i];
-            double y1 = temps[i];
-            double x2 = times[i + 1];
-            double y2 = temps[i + 1];
-            
-            double h = x2 - x1;
-            double M1 = secondDerivatives[i];
-            double M2 = secondDerivatives[i + 1];
+            int x1 = times[i];
+            int x2 = times[i + 1];
             
-            // Compute cubic spline coefficients: S(x) = a + b(x-x1) + c(x-x1)^2 + d(x-x1)^3
-            double a = y1;
-            double b = (y2 - y1) / h - h * (2 * M1 + M2) / 6.0;
-            double c = M1 / 2.0;
-            double d = (M2 - M1) / (6.0 * h);
+            double a = coefficients[0][i];
+            double b = coefficients[1][i];
+            double c = coefficients[2][i];
+            double d = coefficients[3][i];
             
             // Format output for cubic spline
             writer.printf("%8d <= x <= %8d ; y = %12.4f + %12.4f(x-%d) + %12.4f(x-%d)^2 + %12.4f(x-%d)^3 ; cubic-spline%n", 
-                         (int)x1, (int)x2, a, b, (int)x1, c, (int)x1, d, (int)x1);
+                         x1, x2, a, b, x1, c, x1, d, x1);
         }
     }
-} 
\ No newline at end of file
+}
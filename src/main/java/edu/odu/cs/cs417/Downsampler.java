@@ -0,0 +1,158 @@
+package edu.odu.cs.cs417;
+
+/**
+ * This class implements Largest-Triangle-Three-Buckets (LTTB) downsampling.
+ *
+ * LTTB reduces a series to a target number of points while keeping its
+ * visual shape:
+ * 1. The first and last readings are always kept
+ * 2. The remaining readings are split into equal-sized buckets
+ * 3. From each bucket, the reading that forms the largest triangle with the
+ *    previously kept reading and the average of the next bucket is kept
+ *
+ * Every reading is visited once, so downsampling a core is O(n). This is
+ * meant to run between TemperatureParser and the interpolators so that long
+ * traces produce a manageable number of segments.
+ */
+public class Downsampler {
+
+    /**
+     * The downsampled readings for a single core. Each core keeps a
+     * different subset of the time steps, so each has its own times array.
+     */
+    public static class DownsampledCore {
+        /**
+         * Time steps that were kept.
+         */
+        public int[] times;
+
+        /**
+         * Temperature readings at the kept time steps.
+         */
+        public double[] readings;
+
+        /**
+         * Create a downsampled core.
+         *
+         * @param theTimes time steps that were kept
+         * @param theReadings temperature readings at those time steps
+         */
+        public DownsampledCore(int[] theTimes, double[] theReadings) {
+            this.times = theTimes;
+            this.readings = theReadings;
+        }
+    }
+
+    /**
+     * Downsample every CPU core to (at most) the target number of points.
+     *
+     * @param times Array of time steps
+     * @param coreReadings Array of temperature readings [core][time]
+     * @param targetPoints number of points to keep for each core
+     * @return downsampled readings, one entry per core
+     */
+    public static DownsampledCore[] downsample(int[] times, double[][] coreReadings, int targetPoints) {
+        int numberOfCores = coreReadings.length;
+        DownsampledCore[] result = new DownsampledCore[numberOfCores];
+
+        // Process each core separately
+        for (int coreIdx = 0; coreIdx < numberOfCores; ++coreIdx) {
+            double[] coreTemps = coreReadings[coreIdx];
+            int[] kept = largestTriangleThreeBuckets(times, coreTemps, targetPoints);
+
+            int[] keptTimes = new int[kept.length];
+            double[] keptTemps = new double[kept.length];
+            for (int i = 0; i < kept.length; i++) {
+                keptTimes[i] = times[kept[i]];
+                keptTemps[i] = coreTemps[kept[i]];
+            }
+
+            result[coreIdx] = new DownsampledCore(keptTimes, keptTemps);
+        }
+
+        return result;
+    }
+
+    /**
+     * Select the indices of the readings to keep for a single core.
+     *
+     * @param times Array of time steps
+     * @param temps Array of temperature readings for this core
+     * @param targetPoints number of points to keep (at least 3)
+     * @return indices of the kept readings, in increasing order
+     */
+    public static int[] largestTriangleThreeBuckets(int[] times, double[] temps, int targetPoints) {
+        int n = times.length;
+
+        if (targetPoints < 3) {
+            throw new IllegalArgumentException("Target point count must be at least 3");
+        }
+
+        // Nothing to reduce, keep everything
+        if (n <= targetPoints) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[targetPoints];
+        int numKept = 0;
+
+        // Always keep the first point
+        kept[numKept++] = 0;
+        int previous = 0;
+
+        // Interior points (everything except first and last) go into buckets
+        double bucketSize = (double) (n - 2) / (targetPoints - 2);
+
+        for (int bucket = 0; bucket < targetPoints - 2; bucket++) {
+            // Range of the current bucket
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            if (nextStart >= n - 1) {
+                nextStart = n - 1;
+                nextEnd = n;
+            }
+
+            double avgX = 0.0;
+            double avgY = 0.0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += times[i];
+                avgY += temps[i];
+            }
+            avgX /= (nextEnd - nextStart);
+            avgY /= (nextEnd - nextStart);
+
+            // Pick the point forming the largest triangle with the previous
+            // kept point and the next bucket's average
+            double x1 = times[previous];
+            double y1 = temps[previous];
+
+            double maxArea = -1.0;
+            int maxIdx = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area is enough for comparison
+                double area = Math.abs((x1 - avgX) * (temps[i] - y1)
+                                       - (x1 - times[i]) * (avgY - y1));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIdx = i;
+                }
+            }
+
+            kept[numKept++] = maxIdx;
+            previous = maxIdx;
+        }
+
+        // Always keep the last point
+        kept[numKept++] = n - 1;
+
+        return kept;
+    }
+}
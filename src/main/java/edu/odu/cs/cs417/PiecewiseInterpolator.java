@@ -11,6 +11,19 @@ import java.io.IOException;
  */
 public class PiecewiseInterpolator {
     
+    /**
+     * Output format for a single interpolation line (x1, x2, intercept, slope).
+     */
+    static final String INTERPOLATION_FORMAT = "%8.0f <= x <= %8.0f ; y = %12.4f + %12.4f x ; interpolation%n";
+    
+    /**
+     * Output format for a single adaptive segment (x0, x1, y0, slope, x0).
+     * The line is anchored at its start like the cubic-spline lines, and
+     * written with 17 significant digits so that reading it back keeps the
+     * maxError bound no matter how large x gets.
+     */
+    static final String ADAPTIVE_FORMAT = "%8d <= x <= %8d ; y = %.17g + %.17g(x-%d) ; adaptive-interpolation%n";
+    
     /**
      * Bring in the parsed data we designed in part1 of the project.
      * 
@@ -33,6 +46,109 @@ public class PiecewiseInterpolator {
         }
     }
     
+    /**
+     * Compute piecewise linear interpolation for cores that have been
+     * downsampled, where each core has its own time steps.
+     * 
+     * @param cores downsampled readings, one entry per core
+     */
+    public static void computeInterpolation(Downsampler.DownsampledCore[] cores) {
+        if (cores.length == 0) {
+            System.out.println("Nothing to interpolate, check parser!");
+            return;
+        }
+
+        // Process each core separately
+        for (int coreIdx = 0; coreIdx < cores.length; ++coreIdx) {
+            computeInterpolationForCore(cores[coreIdx].times, cores[coreIdx].readings, coreIdx);
+        }
+    }
+
+    /**
+     * Compute adaptive piecewise linear segments for each CPU core. Each
+     * segment is extended for as long as every reading it covers stays
+     * within maxError of the line, so long flat stretches collapse into a
+     * single segment.
+     * 
+     * @param times Array of time steps
+     * @param coreReadings array of temperature readings [core][time]
+     * @param maxError largest allowed distance between a reading and its segment
+     */
+    public static void computeAdaptiveInterpolation(int[] times, double[][] coreReadings, double maxError) {
+        if (times.length == 0 || coreReadings.length == 0) {
+            System.out.println("Nothing to interpolate, check parser!");
+            return;
+        }
+
+        // Process each core separately
+        for (int coreIdx = 0; coreIdx < coreReadings.length; ++coreIdx) {
+            computeAdaptiveInterpolationForCore(times, coreReadings[coreIdx], coreIdx, maxError);
+        }
+    }
+
+    /**
+     * Compute adaptive piecewise linear segments for a specific core using a
+     * swing filter. Each segment starts at an anchor point and keeps a range
+     * of slopes [lowSlope, highSlope] that keep every reading seen so far
+     * within maxError. When a new reading empties that range, the segment is
+     * closed at the previous reading and the next one starts where it ended,
+     * so the segments stay connected. This is a single O(n) pass.
+     * 
+     * @param times Array of time steps
+     * @param coreTemps Array of temperature readings for this core
+     * @param coreIdx Index of the core being processed
+     * @param maxError largest allowed distance between a reading and its segment
+     */
+    private static void computeAdaptiveInterpolationForCore(int[] times, double[] coreTemps, int coreIdx,
+                                                            double maxError) {
+        String filename = "core" + coreIdx + ".txt";
+        
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+            int n = times.length;
+            if (n < 2) {
+                return;
+            }
+
+            // Anchor (start) of the current segment
+            double x0 = times[0];
+            double y0 = coreTemps[0];
+            double lowSlope = Double.NEGATIVE_INFINITY;
+            double highSlope = Double.POSITIVE_INFINITY;
+
+            for (int i = 1; i < n; ++i) {
+                double dx = times[i] - x0;
+                double newLow = Math.max(lowSlope, (coreTemps[i] - maxError - y0) / dx);
+                double newHigh = Math.min(highSlope, (coreTemps[i] + maxError - y0) / dx);
+
+                if (newLow > newHigh) {
+                    // Reading i does not fit, close the segment at reading i-1
+                    double x1 = times[i - 1];
+                    double slope = (lowSlope + highSlope) / 2.0;
+                    double y1 = y0 + slope * (x1 - x0);
+
+                    writer.printf(ADAPTIVE_FORMAT, (int)x0, (int)x1, y0, slope, (int)x0);
+
+                    // Start the next segment where this one ended
+                    x0 = x1;
+                    y0 = y1;
+                    dx = times[i] - x0;
+                    newLow = (coreTemps[i] - maxError - y0) / dx;
+                    newHigh = (coreTemps[i] + maxError - y0) / dx;
+                }
+
+                lowSlope = newLow;
+                highSlope = newHigh;
+            }
+
+            // Close the last segment
+            double x1 = times[n - 1];
+            double slope = (lowSlope + highSlope) / 2.0;
+            writer.printf(ADAPTIVE_FORMAT, (int)x0, (int)x1, y0, slope, (int)x0);
+        } catch (IOException e) {
+            System.err.println("Error writing to file " + filename + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Compute piecewise linear interpolation for a specific core.
      * 
@@ -55,8 +171,7 @@ public class PiecewiseInterpolator {
                 double intercept = y1 - slope * x1; //b
                 
                 // Format output just like sample output
-                writer.printf("%8.0f <= x <= %8.0f ; y = %12.4f + %12.4f x ; interpolation%n", 
-                             x1, x2, intercept, slope);
+                writer.printf(INTERPOLATION_FORMAT, x1, x2, intercept, slope);
             }
         } catch (IOException e) {
             System.err.println("Error writing to file " + filename + ": " + e.getMessage());
@@ -0,0 +1,311 @@
+package edu.odu.cs.cs417;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Formatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * This class computes piecewise linear interpolation as a three-stage
+ * pipeline, so reading, math and writing overlap instead of running one
+ * after another:
+ * 1. Reader: parses batches of lines from the input file
+ * 2. Compute: turns each batch into formatted interpolation lines, one
+ *    block of text per core (cores are formatted in parallel)
+ * 3. Writer: appends each block of text to core0.txt, core1.txt, ...
+ *
+ * The stages hand batches to each other through bounded queues. When a
+ * downstream stage falls behind, the upstream stage blocks (backpressure),
+ * so memory stays bounded by batchSize * queueCapacity rows.
+ *
+ * The output is identical to PiecewiseInterpolator.computeInterpolation.
+ */
+public class PipelinedInterpolator {
+
+    /**
+     * Default number of input lines per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /**
+     * Default number of batches each queue can hold.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    /**
+     * A batch of parsed readings handed from the reader to the compute stage.
+     */
+    private static class Batch {
+        /**
+         * Time step of the first row.
+         */
+        final int firstStep;
+
+        /**
+         * Temperature readings [row][core].
+         */
+        final double[][] rows;
+
+        Batch(int theFirstStep, double[][] theRows) {
+            this.firstStep = theFirstStep;
+            this.rows = theRows;
+        }
+    }
+
+    /**
+     * Marks the end of the readings.
+     */
+    private static final Batch END_OF_READINGS = new Batch(0, new double[0][]);
+
+    /**
+     * Marks the end of the formatted text.
+     */
+    private static final String[] END_OF_TEXT = new String[0];
+
+    /**
+     * Compute piecewise linear interpolation with the default batch size and
+     * queue capacity.
+     *
+     * @param inputTemps an input file
+     * @param stepSize time-step in seconds
+     * @throws IOException if any stage fails (the core files may be incomplete)
+     */
+    public static void computeInterpolation(BufferedReader inputTemps, int stepSize) throws IOException {
+        computeInterpolation(inputTemps, stepSize, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Compute piecewise linear interpolation for all CPU cores, overlapping
+     * parsing, computation and file output.
+     *
+     * @param inputTemps an input file
+     * @param stepSize time-step in seconds
+     * @param batchSize number of input lines per batch
+     * @param queueCapacity number of batches each queue can hold
+     * @throws IOException if any stage fails (the core files may be incomplete)
+     */
+    public static void computeInterpolation(BufferedReader inputTemps, int stepSize,
+                                            int batchSize, int queueCapacity) throws IOException {
+        if (batchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Batch size and queue capacity must be at least 1");
+        }
+
+        final BlockingQueue<Batch> readings = new ArrayBlockingQueue<>(queueCapacity);
+        final BlockingQueue<String[]> text = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> readStage(inputTemps, stepSize, batchSize, readings, failure),
+                                   "pipeline-reader");
+        Thread compute = new Thread(() -> computeStage(stepSize, readings, text, failure),
+                                    "pipeline-compute");
+        reader.setDaemon(true);
+        compute.setDaemon(true);
+        reader.start();
+        compute.start();
+
+        // The writer stage runs on the calling thread
+        try {
+            writeStage(text);
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            // Unblock the other stages if the writer stopped early
+            reader.interrupt();
+            compute.interrupt();
+        }
+
+        Exception error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error != null) {
+            throw new IOException("Error computing pipelined interpolation: " + error, error);
+        }
+    }
+
+    /**
+     * Reader stage: parse the input file into batches of rows.
+     *
+     * @param inputTemps an input file
+     * @param stepSize time-step in seconds
+     * @param batchSize number of input lines per batch
+     * @param readings queue to the compute stage
+     * @param failure first error raised by any stage
+     */
+    private static void readStage(BufferedReader inputTemps, int stepSize, int batchSize,
+                                  BlockingQueue<Batch> readings, AtomicReference<Exception> failure) {
+        try {
+            int step = 0;
+            double[][] rows = new double[batchSize][];
+            int numberOfRows = 0;
+            int firstStep = 0;
+            int numberOfCores = -1;
+            int lineNumber = 0;
+
+            String line;
+            while ((line = inputTemps.readLine()) != null) {
+                double[] row = TemperatureParser.parseReadings(line);
+                lineNumber++;
+
+                // Every row must match the first, whatever the batch boundaries
+                if (numberOfCores < 0) {
+                    numberOfCores = row.length;
+                }
+                else if (row.length != numberOfCores) {
+                    throw new IOException("Expected " + numberOfCores + " readings on line "
+                                          + lineNumber + " but found " + row.length);
+                }
+
+                rows[numberOfRows++] = row;
+                step += stepSize;
+
+                if (numberOfRows == batchSize) {
+                    readings.put(new Batch(firstStep, rows));
+                    rows = new double[batchSize][];
+                    numberOfRows = 0;
+                    firstStep = step;
+                }
+            }
+
+            if (numberOfRows > 0) {
+                double[][] lastRows = new double[numberOfRows][];
+                System.arraycopy(rows, 0, lastRows, 0, numberOfRows);
+                readings.put(new Batch(firstStep, lastRows));
+            }
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        try {
+            readings.put(END_OF_READINGS);
+        } catch (InterruptedException e) {
+            // The writer already stopped
+        }
+    }
+
+    /**
+     * Compute stage: format the interpolation lines for each batch. The
+     * last row of each batch is carried over so that the segment spanning
+     * two batches is not lost.
+     *
+     * @param stepSize time-step in seconds
+     * @param readings queue from the reader stage
+     * @param text queue to the writer stage, one block of text per core
+     * @param failure first error raised by any stage
+     */
+    private static void computeStage(int stepSize, BlockingQueue<Batch> readings,
+                                     BlockingQueue<String[]> text, AtomicReference<Exception> failure) {
+        try {
+            double[] prevRow = null;
+
+            Batch batch;
+            while ((batch = readings.take()) != END_OF_READINGS) {
+                final Batch current = batch;
+                final double[] carryRow = prevRow;
+                final int numberOfCores = current.rows[0].length;
+
+                String[] perCore = IntStream.range(0, numberOfCores)
+                    .parallel()
+                    .mapToObj(coreIdx -> formatSegments(current, carryRow, stepSize, coreIdx))
+                    .toArray(String[]::new);
+                text.put(perCore);
+
+                prevRow = current.rows[current.rows.length - 1];
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        try {
+            text.put(END_OF_TEXT);
+        } catch (InterruptedException e) {
+            // The writer already stopped
+        }
+    }
+
+    /**
+     * Format the interpolation lines of one core for one batch.
+     *
+     * @param batch the batch of rows
+     * @param carryRow last row of the previous batch (null for the first batch)
+     * @param stepSize time-step in seconds
+     * @param coreIdx Index of the core being processed
+     * @return interpolation lines for this core
+     */
+    private static String formatSegments(Batch batch, double[] carryRow, int stepSize, int coreIdx) {
+        StringBuilder bld = new StringBuilder();
+
+        try (Formatter formatter = new Formatter(bld)) {
+            double x1 = batch.firstStep - stepSize;
+            double y1 = (carryRow != null) ? carryRow[coreIdx] : 0.0;
+            boolean havePrevious = (carryRow != null);
+
+            for (double[] row : batch.rows) {
+                double x2 = x1 + stepSize;
+                double y2 = row[coreIdx];
+
+                if (havePrevious) {
+                    // Compute slope and intercept (same as PiecewiseInterpolator)
+                    double slope = (y2 - y1) / (x2 - x1);
+                    double intercept = y1 - slope * x1;
+
+                    formatter.format(PiecewiseInterpolator.INTERPOLATION_FORMAT, x1, x2, intercept, slope);
+                }
+
+                x1 = x2;
+                y1 = y2;
+                havePrevious = true;
+            }
+        }
+
+        return bld.toString();
+    }
+
+    /**
+     * Writer stage: append each block of text to its core's file. The files
+     * are opened when the first block arrives, since that is when the
+     * number of cores is known.
+     *
+     * @param text queue from the compute stage
+     */
+    private static void writeStage(BlockingQueue<String[]> text) throws IOException, InterruptedException {
+        Writer[] writers = null;
+
+        try {
+            String[] perCore;
+            while ((perCore = text.take()) != END_OF_TEXT) {
+                if (writers == null) {
+                    writers = new Writer[perCore.length];
+                    for (int coreIdx = 0; coreIdx < perCore.length; coreIdx++) {
+                        writers[coreIdx] = new BufferedWriter(new FileWriter("core" + coreIdx + ".txt"), 1 << 16);
+                    }
+                }
+
+                for (int coreIdx = 0; coreIdx < perCore.length; coreIdx++) {
+                    writers[coreIdx].write(perCore[coreIdx]);
+                }
+            }
+        } finally {
+            if (writers != null) {
+                for (Writer writer : writers) {
+                    if (writer != null) {
+                        writer.close();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package edu.odu.cs.cs417;
+
+/**
+ * This class implements Global Polynomial Least Squares Approximation of
+ * any degree, generalizing the degree-1 fit in GlobalLeastSquares.
+ *
+ * The normal equations (X^T * X | X^T * Y) are built from power moments:
+ * 1. Times are centered and scaled to t = (x - center) / scale, so t is in
+ *    [-1, 1] and the moments stay well conditioned
+ * 2. X^T * X only depends on the times, so it is shared by every core
+ * 3. All moments for all cores are accumulated in one pass over the
+ *    shared time axis
+ *
+ * The (k+1)x(k+1) system is symmetric positive definite, so it is factored
+ * once with Cholesky decomposition and then solved for each core.
+ */
+public class PolynomialLeastSquares {
+
+    /**
+     * A polynomial y = c_0 + c_1 t + ... + c_k t^k
+     * where t = (x - center) / scale.
+     */
+    public static class PolynomialFit {
+        /**
+         * Time subtracted from x before scaling.
+         */
+        public double center;
+
+        /**
+         * Divisor applied to (x - center).
+         */
+        public double scale;
+
+        /**
+         * Coefficients c_0 ... c_k of the polynomial in t.
+         */
+        public double[] coefficients;
+
+        /**
+         * Create a polynomial fit.
+         *
+         * @param theCenter time subtracted from x before scaling
+         * @param theScale divisor applied to (x - center)
+         * @param theCoefficients coefficients of the polynomial in t
+         */
+        public PolynomialFit(double theCenter, double theScale, double[] theCoefficients) {
+            this.center = theCenter;
+            this.scale = theScale;
+            this.coefficients = theCoefficients;
+        }
+
+        /**
+         * Evaluate the polynomial at time x using Horner's method.
+         *
+         * @param x time at which to evaluate
+         * @return approximated temperature
+         */
+        public double evaluate(double x) {
+            double t = (x - center) / scale;
+            double y = 0.0;
+            for (int j = coefficients.length - 1; j >= 0; j--) {
+                y = y * t + coefficients[j];
+            }
+            return y;
+        }
+    }
+
+    /**
+     * Compute a degree-k least squares polynomial for every CPU core in a
+     * single pass over the time steps.
+     *
+     * @param times Array of time steps (in increasing order)
+     * @param coreReadings Array of temperature readings [core][time]
+     * @param degree polynomial degree k
+     * @return one fit per core
+     */
+    public static PolynomialFit[] fitAllCores(int[] times, double[][] coreReadings, int degree) {
+        int n = times.length;
+        int numberOfCores = coreReadings.length;
+
+        if (degree < 0) {
+            throw new IllegalArgumentException("Degree must not be negative");
+        }
+        if (n <= degree) {
+            throw new IllegalArgumentException("Degree " + degree + " needs more than " + n + " readings");
+        }
+
+        // Map [times[0], times[n-1]] onto [-1, 1]
+        double center = (times[0] + times[n - 1]) / 2.0;
+        double scale = (times[n - 1] - times[0]) / 2.0;
+        if (scale == 0.0) {
+            scale = 1.0;
+        }
+
+        // moments[j] = sum of t^j, for j = 0 ... 2k
+        double[] moments = new double[2 * degree + 1];
+        // rhs[core][j] = sum of y * t^j, for j = 0 ... k
+        double[][] rhs = new double[numberOfCores][degree + 1];
+        double[] powers = new double[2 * degree + 1];
+
+        // Single pass over the shared time axis
+        for (int i = 0; i < n; i++) {
+            double t = (times[i] - center) / scale;
+
+            powers[0] = 1.0;
+            for (int j = 1; j < powers.length; j++) {
+                powers[j] = powers[j - 1] * t;
+            }
+
+            for (int j = 0; j < moments.length; j++) {
+                moments[j] += powers[j];
+            }
+
+            for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                double y = coreReadings[coreIdx][i];
+                double[] coreRhs = rhs[coreIdx];
+                for (int j = 0; j <= degree; j++) {
+                    coreRhs[j] += y * powers[j];
+                }
+            }
+        }
+
+        // Build X^T * X (a Hankel matrix of the moments) and factor it once
+        double[][] xtx = new double[degree + 1][degree + 1];
+        for (int r = 0; r <= degree; r++) {
+            for (int c = 0; c <= degree; c++) {
+                xtx[r][c] = moments[r + c];
+            }
+        }
+        double[][] lower = choleskyDecompose(xtx);
+
+        PolynomialFit[] fits = new PolynomialFit[numberOfCores];
+        for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+            fits[coreIdx] = new PolynomialFit(center, scale, choleskySolve(lower, rhs[coreIdx]));
+        }
+
+        return fits;
+    }
+
+    /**
+     * Factor a symmetric positive definite matrix A into L * L^T.
+     *
+     * @param A Coefficient matrix (symmetric positive definite)
+     * @return Lower triangular matrix L
+     */
+    private static double[][] choleskyDecompose(double[][] A) {
+        int n = A.length;
+        double[][] L = new double[n][n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = A[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= L[i][k] * L[j][k];
+                }
+
+                if (i == j) {
+                    if (sum <= 1e-12 * Math.abs(A[i][i])) {
+                        throw new ArithmeticException("Matrix is singular");
+                    }
+                    L[i][i] = Math.sqrt(sum);
+                }
+                else {
+                    L[i][j] = sum / L[j][j];
+                }
+            }
+        }
+
+        return L;
+    }
+
+    /**
+     * Solve L * L^T * x = b by forward then back substitution.
+     *
+     * @param L Lower triangular factor from choleskyDecompose
+     * @param b Right-hand side vector
+     * @return Solution vector
+     */
+    private static double[] choleskySolve(double[][] L, double[] b) {
+        int n = b.length;
+
+        // Forward substitution: L * z = b
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int k = 0; k < i; k++) {
+                sum -= L[i][k] * z[k];
+            }
+            z[i] = sum / L[i][i];
+        }
+
+        // Back substitution: L^T * x = z
+        double[] x = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = z[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= L[k][i] * x[k];
+            }
+            x[i] = sum / L[i][i];
+        }
+
+        return x;
+    }
+}
@@ -0,0 +1,320 @@
+package edu.odu.cs.cs417;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+/**
+ * This class implements natural cubic spline interpolation for traces that
+ * are too large to hold in memory.
+ *
+ * It solves the same tridiagonal system as CubicSplineInterpolator with the
+ * Thomas algorithm, but in three sequential passes:
+ * 1. Forward: readings are read one line at a time and forward elimination
+ *    is carried from row to row. Each row's eliminated values are written
+ *    to a spill file.
+ * 2. Reverse: the spill file is read backwards in fixed-size blocks and
+ *    back substitution produces the second derivatives, which are written
+ *    to a second spill file.
+ * 3. Output: both spill files are read forwards and the spline segments
+ *    are written to core0.txt, core1.txt, ...
+ *
+ * Only a window of a few rows plus one block of records per pass is kept in
+ * memory, so memory use does not grow with the length of the trace.
+ */
+public class StreamingSplineInterpolator {
+
+    /**
+     * Number of rows read or written at a time during the reverse pass.
+     */
+    private static final int BLOCK_ROWS = 4096;
+
+    /**
+     * Compute cubic spline interpolation for all CPU cores, reading the
+     * input one line at a time.
+     *
+     * @param inputTemps an input file
+     * @param stepSize time-step in seconds
+     * @throws IOException if the input cannot be read or parsed, or a spill
+     *         file cannot be written (the core files may be incomplete)
+     */
+    public static void computeCubicSpline(BufferedReader inputTemps, int stepSize) throws IOException {
+        File forwardFile = null;
+        File secondDerivativeFile = null;
+
+        try {
+            forwardFile = File.createTempFile("spline-forward", ".bin");
+            secondDerivativeFile = File.createTempFile("spline-second-derivatives", ".bin");
+
+            int[] shape = forwardElimination(inputTemps, stepSize, forwardFile);
+            int numberOfRows = shape[0];
+            int numberOfCores = shape[1];
+
+            if (numberOfRows == 0) {
+                System.out.println("Nothing to interpolate, check parser!");
+                return;
+            }
+
+            backSubstitution(forwardFile, secondDerivativeFile, numberOfRows, numberOfCores);
+            writeCubicSplineSegments(forwardFile, secondDerivativeFile, numberOfRows, numberOfCores);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed temperature reading: " + e.getMessage(), e);
+        } finally {
+            if (forwardFile != null) {
+                forwardFile.delete();
+            }
+            if (secondDerivativeFile != null) {
+                secondDerivativeFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Read the input sequentially and run the forward elimination of the
+     * Thomas algorithm. Each row is written to the spill file as
+     * [x, cPrime, dPrime_0 ... dPrime_{c-1}, y_0 ... y_{c-1}].
+     *
+     * cPrime only depends on the times, so it is shared by every core.
+     *
+     * @param inputTemps an input file
+     * @param stepSize time-step in seconds
+     * @param forwardFile spill file for the eliminated rows
+     * @return [number of rows, number of cores]
+     * @throws IOException if a line does not have one reading per core
+     */
+    private static int[] forwardElimination(BufferedReader inputTemps, int stepSize, File forwardFile)
+        throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(new FileOutputStream(forwardFile), 1 << 16))) {
+            // Window of three rows: previous (i-1), current (i), next (i+1)
+            String line = inputTemps.readLine();
+            if (line == null) {
+                return new int[]{0, 0};
+            }
+
+            double[] prevTemps = null;
+            double[] currTemps = TemperatureParser.parseReadings(line);
+            int numberOfCores = currTemps.length;
+            double prevTime = 0;
+            double currTime = 0;
+            int numberOfRows = 1;
+
+            // Forward elimination carry from the previous row
+            double prevCPrime = 0.0;
+            double[] dPrime = new double[numberOfCores];
+
+            // Natural boundary condition: first row is M[0] = 0
+            writeForwardRow(out, currTime, 0.0, dPrime, currTemps);
+
+            while ((line = inputTemps.readLine()) != null) {
+                double[] nextTemps = TemperatureParser.parseReadings(line);
+                if (nextTemps.length != numberOfCores) {
+                    throw new IOException("Expected " + numberOfCores + " readings on line "
+                                          + (numberOfRows + 1) + " but found " + nextTemps.length);
+                }
+                double nextTime = currTime + stepSize;
+                numberOfRows++;
+
+                // Row i becomes an interior row once row i+1 is known
+                if (prevTemps != null) {
+                    double h_i = currTime - prevTime;
+                    double h_i1 = nextTime - currTime;
+
+                    double a = h_i;
+                    double b = 2.0 * (h_i + h_i1);
+                    double c = h_i1;
+
+                    double denominator = b - a * prevCPrime;
+                    double cPrime = c / denominator;
+
+                    for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                        double d = 6.0 * ((nextTemps[coreIdx] - currTemps[coreIdx]) / h_i1
+                                          - (currTemps[coreIdx] - prevTemps[coreIdx]) / h_i);
+                        dPrime[coreIdx] = (d - a * dPrime[coreIdx]) / denominator;
+                    }
+
+                    writeForwardRow(out, currTime, cPrime, dPrime, currTemps);
+                    prevCPrime = cPrime;
+                }
+
+                prevTemps = currTemps;
+                prevTime = currTime;
+                currTemps = nextTemps;
+                currTime = nextTime;
+            }
+
+            // Natural boundary condition: last row is M[n-1] = 0
+            if (numberOfRows > 1) {
+                writeForwardRow(out, currTime, 0.0, new double[numberOfCores], currTemps);
+            }
+
+            return new int[]{numberOfRows, numberOfCores};
+        }
+    }
+
+    /**
+     * Write one eliminated row to the forward spill file.
+     *
+     * @param out spill file stream
+     * @param time time step of the row
+     * @param cPrime eliminated superdiagonal for the row
+     * @param dPrime eliminated right-hand side for each core
+     * @param temps temperature readings for each core
+     */
+    private static void writeForwardRow(DataOutputStream out, double time, double cPrime,
+                                        double[] dPrime, double[] temps) throws IOException {
+        out.writeDouble(time);
+        out.writeDouble(cPrime);
+        for (double value : dPrime) {
+            out.writeDouble(value);
+        }
+        for (double value : temps) {
+            out.writeDouble(value);
+        }
+    }
+
+    /**
+     * Read the forward spill file backwards, one block at a time, and run the
+     * back substitution of the Thomas algorithm. The second derivatives of
+     * row i are written at offset i in the second derivative spill file.
+     *
+     * @param forwardFile spill file from forwardElimination
+     * @param secondDerivativeFile spill file for the second derivatives
+     * @param numberOfRows number of rows in the forward spill file
+     * @param numberOfCores number of cores per row
+     */
+    private static void backSubstitution(File forwardFile, File secondDerivativeFile,
+                                         int numberOfRows, int numberOfCores) throws IOException {
+        final int forwardRowBytes = Double.BYTES * (2 + 2 * numberOfCores);
+        final int resultRowBytes = Double.BYTES * numberOfCores;
+
+        byte[] forwardBlock = new byte[BLOCK_ROWS * forwardRowBytes];
+        byte[] resultBlock = new byte[BLOCK_ROWS * resultRowBytes];
+
+        // Back substitution carry: M[i+1] for each core
+        double[] nextM = new double[numberOfCores];
+
+        try (RandomAccessFile in = new RandomAccessFile(forwardFile, "r");
+             RandomAccessFile out = new RandomAccessFile(secondDerivativeFile, "rw")) {
+            out.setLength((long) numberOfRows * resultRowBytes);
+
+            int blockEnd = numberOfRows;
+            while (blockEnd > 0) {
+                int blockStart = Math.max(0, blockEnd - BLOCK_ROWS);
+                int rows = blockEnd - blockStart;
+
+                in.seek((long) blockStart * forwardRowBytes);
+                in.readFully(forwardBlock, 0, rows * forwardRowBytes);
+                ByteBuffer forward = ByteBuffer.wrap(forwardBlock);
+                ByteBuffer result = ByteBuffer.wrap(resultBlock);
+
+                for (int r = rows - 1; r >= 0; r--) {
+                    int rowOffset = r * forwardRowBytes;
+                    double cPrime = forward.getDouble(rowOffset + Double.BYTES);
+
+                    for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                        double dPrime = forward.getDouble(rowOffset + Double.BYTES * (2 + coreIdx));
+                        // The last row has cPrime = 0, so it starts the recurrence
+                        nextM[coreIdx] = dPrime - cPrime * nextM[coreIdx];
+                        result.putDouble(r * resultRowBytes + Double.BYTES * coreIdx, nextM[coreIdx]);
+                    }
+                }
+
+                out.seek((long) blockStart * resultRowBytes);
+                out.write(resultBlock, 0, rows * resultRowBytes);
+
+                blockEnd = blockStart;
+            }
+        }
+    }
+
+    /**
+     * Read both spill files forwards and write the cubic spline segments
+     * for every core.
+     *
+     * @param forwardFile spill file with times and temperature readings
+     * @param secondDerivativeFile spill file with the second derivatives
+     * @param numberOfRows number of rows in each spill file
+     * @param numberOfCores number of cores per row
+     */
+    private static void writeCubicSplineSegments(File forwardFile, File secondDerivativeFile,
+                                                 int numberOfRows, int numberOfCores) throws IOException {
+        PrintWriter[] writers = new PrintWriter[numberOfCores];
+
+        try (DataInputStream forward = new DataInputStream(
+                 new BufferedInputStream(new FileInputStream(forwardFile), 1 << 16));
+             DataInputStream secondDerivatives = new DataInputStream(
+                 new BufferedInputStream(new FileInputStream(secondDerivativeFile), 1 << 16))) {
+
+            for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                writers[coreIdx] = new PrintWriter(new FileWriter("core" + coreIdx + ".txt"));
+            }
+
+            double[] prevTemps = new double[numberOfCores];
+            double[] prevM = new double[numberOfCores];
+            double[] currTemps = new double[numberOfCores];
+            double[] currM = new double[numberOfCores];
+            double prevTime = 0.0;
+
+            for (int row = 0; row < numberOfRows; row++) {
+                double currTime = forward.readDouble();
+                forward.readDouble(); // cPrime is not needed
+                for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                    forward.readDouble(); // dPrime is not needed
+                }
+                for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                    currTemps[coreIdx] = forward.readDouble();
+                }
+                for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                    currM[coreIdx] = secondDerivatives.readDouble();
+                }
+
+                if (row > 0) {
+                    double h = currTime - prevTime;
+
+                    for (int coreIdx = 0; coreIdx < numberOfCores; coreIdx++) {
+                        double y1 = prevTemps[coreIdx];
+                        double y2 = currTemps[coreIdx];
+                        double M1 = prevM[coreIdx];
+                        double M2 = currM[coreIdx];
+
+                        // Compute cubic spline coefficients: S(x) = a + b(x-x1) + c(x-x1)^2 + d(x-x1)^3
+                        double a = y1;
+                        double b = (y2 - y1) / h - h * (2 * M1 + M2) / 6.0;
+                        double c = M1 / 2.0;
+                        double d = (M2 - M1) / (6.0 * h);
+
+                        // Format output for cubic spline
+                        writers[coreIdx].printf("%8d <= x <= %8d ; y = %12.4f + %12.4f(x-%d) + %12.4f(x-%d)^2 + %12.4f(x-%d)^3 ; cubic-spline%n",
+                                                (int)prevTime, (int)currTime, a, b, (int)prevTime, c, (int)prevTime, d, (int)prevTime);
+                    }
+                }
+
+                // Swap the window
+                double[] swap = prevTemps;
+                prevTemps = currTemps;
+                currTemps = swap;
+                swap = prevM;
+                prevM = currM;
+                currM = swap;
+                prevTime = currTime;
+            }
+        } finally {
+            for (PrintWriter writer : writers) {
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+        }
+    }
+}
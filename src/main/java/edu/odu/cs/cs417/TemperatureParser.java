@@ -1,12 +1,32 @@
 package edu.odu.cs.cs417;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Vector;
+import java.util.zip.GZIPInputStream;
 
 public class TemperatureParser
 {
+    /**
+     * Size of the read and decompression buffers.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Size of the pipe between the decompression thread and the parser.
+     */
+    private static final int PIPE_SIZE = 1 << 20;
+
     /**
      * A pair of values where:
      * <ul>
@@ -63,6 +83,117 @@ public class TemperatureParser
         }
     }
 
+    /**
+     * Open an input file for parsing. Gzip-compressed files are detected by
+     * their magic bytes (0x1f 0x8b) and decompressed as they are read.
+     *
+     * @param inputFile a plain-text or gzip-compressed input file
+     *
+     * @return a reader over the (decompressed) text
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader openTemps(File inputFile)
+        throws IOException
+    {
+        return openTemps(inputFile, false);
+    }
+
+    /**
+     * Open an input file for parsing. Gzip-compressed files are detected by
+     * their magic bytes (0x1f 0x8b) and decompressed as they are read.
+     *
+     * @param inputFile a plain-text or gzip-compressed input file
+     * @param decompressOnThread decompress gzip input on a separate thread
+     *        so that decompression and parsing overlap
+     *
+     * @return a reader over the (decompressed) text
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader openTemps(File inputFile, boolean decompressOnThread)
+        throws IOException
+    {
+        InputStream in = new BufferedInputStream(new FileInputStream(inputFile), BUFFER_SIZE);
+
+        if (isGzip(in)) {
+            in = new GZIPInputStream(in, BUFFER_SIZE);
+
+            if (decompressOnThread) {
+                in = decompressOnThread(in, inputFile.getName());
+            }
+        }
+
+        return new BufferedReader(new InputStreamReader(in), BUFFER_SIZE);
+    }
+
+    /**
+     * Check for the gzip magic bytes without consuming them.
+     *
+     * @param in a stream that supports mark/reset
+     *
+     * @return true if the stream starts with 0x1f 0x8b
+     *
+     * @throws IOException if the stream cannot be read
+     */
+    private static boolean isGzip(InputStream in)
+        throws IOException
+    {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+
+        return first == 0x1f && second == 0x8b;
+    }
+
+    /**
+     * Copy a (decompressing) stream into a pipe on a background thread.
+     * If decompression fails, the thread ends without closing the pipe, so
+     * the parser sees an IOException instead of a truncated file. The
+     * decompressing stream (and the file under it) is closed either way.
+     *
+     * @param decompressed stream to read on the background thread
+     * @param name name used for the thread
+     *
+     * @return the parser's end of the pipe
+     *
+     * @throws IOException if the pipe cannot be created
+     */
+    private static InputStream decompressOnThread(InputStream decompressed, String name)
+        throws IOException
+    {
+        PipedInputStream parserEnd = new PipedInputStream(PIPE_SIZE);
+        OutputStream decompressorEnd = new PipedOutputStream(parserEnd);
+
+        Thread decompressor = new Thread(() -> {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try {
+                int count;
+                while ((count = decompressed.read(buffer)) != -1) {
+                    decompressorEnd.write(buffer, 0, count);
+                }
+                decompressorEnd.close();
+            }
+            catch (IOException e) {
+                System.err.println("Error decompressing " + name + ": " + e.getMessage());
+            }
+            finally {
+                try {
+                    decompressed.close();
+                }
+                catch (IOException e) {
+                    // Nothing left to read from it
+                }
+            }
+        }, "decompress-" + name);
+
+        decompressor.setDaemon(true);
+        decompressor.start();
+
+        return parserEnd;
+    }
+
     /**
      * Take an input file and parse all core temps. Assume a step size of
      * 30 seconds.
@@ -85,28 +216,41 @@ public class TemperatureParser
      *
      * @return a vector of 2-tuples (pairs) containing time step and core
      *         temperature readings
+     *
+     * @throws java.io.UncheckedIOException if the input cannot be read, for
+     *         example a corrupt or truncated gzip file
      */
     public static List<CoreTempReading> parseRawTemps(
         BufferedReader inputTemps, int stepSize
     )
     {
-        String[][] rawLines = inputTemps.lines()
-            .map(s -> s.split("([^0-9]*\\s)|([^0-9]*$)"))
-            .toArray(String[][]::new);
+        String[] rawLines = inputTemps.lines()
+            .toArray(String[]::new);
 
         List<CoreTempReading> allReadings = new Vector<>(rawLines.length);
 
         int step = 0;
-        for (String[] line : rawLines) {
-            final double[] tempReadings = Arrays.stream(line)
-                .mapToDouble(token -> Double.parseDouble(token))
-                .toArray();
-
-            allReadings.add(new CoreTempReading(step, tempReadings));
+        for (String line : rawLines) {
+            allReadings.add(new CoreTempReading(step, parseReadings(line)));
 
             step += stepSize;
         }
 
         return allReadings;
     }
+
+    /**
+     * Parse the core temps from a single line of an input file. This allows
+     * callers to read a file one line at a time instead of all at once.
+     *
+     * @param line one line of an input file
+     *
+     * @return temperature readings (one per core)
+     */
+    public static double[] parseReadings(String line)
+    {
+        return Arrays.stream(line.split("([^0-9]*\\s)|([^0-9]*$)"))
+            .mapToDouble(token -> Double.parseDouble(token))
+            .toArray();
+    }
 }
@@ -0,0 +1,328 @@
+package edu.odu.cs.cs417;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * This class finds thermal events directly from the cubic spline segments
+ * computed by CubicSplineInterpolator.
+ *
+ * Each segment S(t) = a + b t + c t^2 + d t^3 (t = x - x1, 0 <= t <= h)
+ * is examined analytically instead of by dense sampling:
+ * 1. Local maxima are roots of the quadratic S'(t) = b + 2c t + 3d t^2
+ *    where S''(t) &lt; 0
+ * 2. Between consecutive roots of S'(t) the segment is monotone, so each
+ *    threshold crossing is bracketed and located by bisection
+ * 3. The largest heating rate S'(t) is at an endpoint or at the root of
+ *    the linear S''(t) = 2c + 6d t
+ *
+ * This makes detection O(segments) per core, and cores run in parallel.
+ */
+public class ThermalEventDetector {
+
+    /**
+     * Number of bisection steps used to locate a threshold crossing. Each
+     * step halves the bracket, so 50 steps is well past double precision
+     * for any realistic segment length.
+     */
+    private static final int BISECTION_STEPS = 50;
+
+    /**
+     * Roots of S'(t) this close to a reading (relative to the segment
+     * length) are treated as lying exactly on it. A root on a reading
+     * belongs to the segment that starts there, so a maximum at a reading
+     * is reported once even when rounding puts the root just outside one
+     * segment or just inside both.
+     */
+    private static final double KNOT_TOLERANCE = 1e-9;
+
+    /**
+     * Kinds of events that can be detected.
+     */
+    public enum EventType {
+        /** Temperature rises to or above the threshold. */
+        THRESHOLD_UP("threshold-up"),
+        /** Temperature falls below the threshold. */
+        THRESHOLD_DOWN("threshold-down"),
+        /** Local maximum of the temperature. */
+        LOCAL_MAXIMUM("local-maximum"),
+        /** Largest heating rate (dT/dt) for the core. */
+        MAX_HEATING_RATE("max-heating-rate");
+
+        /**
+         * Label used in the output file.
+         */
+        private final String label;
+
+        EventType(String theLabel) {
+            this.label = theLabel;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * A single event for a single core.
+     */
+    public static class ThermalEvent {
+        /**
+         * Index of the core.
+         */
+        public int core;
+
+        /**
+         * Kind of event.
+         */
+        public EventType type;
+
+        /**
+         * Time (in seconds) at which the event happens.
+         */
+        public double time;
+
+        /**
+         * Temperature at the event, or dT/dt for MAX_HEATING_RATE.
+         */
+        public double value;
+
+        /**
+         * Create an event.
+         *
+         * @param theCore index of the core
+         * @param theType kind of event
+         * @param theTime time at which the event happens
+         * @param theValue temperature (or dT/dt) at the event
+         */
+        public ThermalEvent(int theCore, EventType theType, double theTime, double theValue) {
+            this.core = theCore;
+            this.type = theType;
+            this.time = theTime;
+            this.value = theValue;
+        }
+    }
+
+    /**
+     * Detect thermal events for all CPU cores and write them to
+     * thermal-events.txt.
+     *
+     * @param times Array of time steps
+     * @param coreReadings Array of temperature readings [core][time]
+     * @param threshold temperature whose crossings are reported
+     */
+    public static void computeThermalEvents(int[] times, double[][] coreReadings, double threshold) {
+        if (times.length == 0 || coreReadings.length == 0) {
+            System.out.println("Nothing to analyze, check parser!");
+            return;
+        }
+
+        List<ThermalEvent> events = detectEvents(times, coreReadings, threshold);
+        String filename = "thermal-events.txt";
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+            for (ThermalEvent event : events) {
+                writer.printf("core %3d ; x = %12.4f ; %-16s ; %12.4f%n",
+                              event.core, event.time, event.type, event.value);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing to file " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Detect thermal events for all CPU cores, in parallel.
+     *
+     * @param times Array of time steps
+     * @param coreReadings Array of temperature readings [core][time]
+     * @param threshold temperature whose crossings are reported
+     * @return events ordered by core, then by time
+     */
+    public static List<ThermalEvent> detectEvents(int[] times, double[][] coreReadings, double threshold) {
+        return IntStream.range(0, coreReadings.length)
+            .parallel()
+            .mapToObj(coreIdx -> detectEventsForCore(times, coreReadings[coreIdx], coreIdx, threshold))
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Detect thermal events for a specific core.
+     *
+     * @param times Array of time steps
+     * @param coreTemps Array of temperature readings for this core
+     * @param coreIdx Index of the core being processed
+     * @param threshold temperature whose crossings are reported
+     * @return events ordered by time, with the max heating rate last
+     */
+    private static List<ThermalEvent> detectEventsForCore(int[] times, double[] coreTemps,
+                                                          int coreIdx, double threshold) {
+        List<ThermalEvent> events = new ArrayList<>();
+        double[][] coefficients = CubicSplineInterpolator.computeSegmentCoefficients(times, coreTemps);
+        int numberOfSegments = coefficients[0].length;
+
+        double maxRate = Double.NEGATIVE_INFINITY;
+        double maxRateTime = times[0];
+
+        // Critical points of a segment: 0, up to two roots of S'(t), h
+        double[] breakpoints = new double[4];
+
+        // Above/below state is carried along the whole trace and taken from
+        // the exact readings at the segment ends. S(h) can land an ulp away
+        // from the next reading, so deciding each segment on its own could
+        // report a crossing at a reading twice, or not at all.
+        boolean above = coreTemps[0] >= threshold;
+
+        for (int i = 0; i < numberOfSegments; i++) {
+            double x1 = times[i];
+            double h = times[i + 1] - x1;
+            double a = coefficients[0][i];
+            double b = coefficients[1][i];
+            double c = coefficients[2][i];
+            double d = coefficients[3][i];
+
+            // Roots of S'(t) = 3d t^2 + 2c t + b in [0, h), the end of the
+            // segment is the start of the next one
+            int numberOfBreakpoints = 0;
+            breakpoints[numberOfBreakpoints++] = 0.0;
+            double[] roots = quadraticRoots(3.0 * d, 2.0 * c, b);
+            for (double root : roots) {
+                if (root >= -KNOT_TOLERANCE * h && root < (1.0 - KNOT_TOLERANCE) * h) {
+                    breakpoints[numberOfBreakpoints++] = Math.max(root, 0.0);
+                }
+            }
+            breakpoints[numberOfBreakpoints++] = h;
+
+            // Threshold crossings and maxima, in time order
+            for (int k = 0; k + 1 < numberOfBreakpoints; k++) {
+                double left = breakpoints[k];
+                double right = breakpoints[k + 1];
+                double valueRight = (k + 2 < numberOfBreakpoints) ? evaluate(a, b, c, d, right)
+                                                                 : coreTemps[i + 1];
+                boolean aboveRight = valueRight >= threshold;
+
+                // S is monotone on [left, right], so there is at most one crossing
+                if (above != aboveRight) {
+                    double crossing = bisect(a - threshold, b, c, d, left, right, !above);
+                    events.add(new ThermalEvent(coreIdx,
+                                                aboveRight ? EventType.THRESHOLD_UP : EventType.THRESHOLD_DOWN,
+                                                x1 + crossing, threshold));
+                    above = aboveRight;
+                }
+
+                // A root of S'(t) where S''(t) < 0 is a local maximum
+                if (k + 2 < numberOfBreakpoints && 2.0 * c + 6.0 * d * right < 0.0) {
+                    events.add(new ThermalEvent(coreIdx, EventType.LOCAL_MAXIMUM,
+                                                x1 + right, evaluate(a, b, c, d, right)));
+                }
+            }
+
+            // Largest S'(t): at an endpoint, or where S''(t) = 0 if S' is concave
+            double rateLeft = b;
+            double rateRight = b + 2.0 * c * h + 3.0 * d * h * h;
+            if (rateLeft > maxRate) {
+                maxRate = rateLeft;
+                maxRateTime = x1;
+            }
+            if (rateRight > maxRate) {
+                maxRate = rateRight;
+                maxRateTime = x1 + h;
+            }
+            if (d < 0.0) {
+                double inflection = -c / (3.0 * d);
+                if (inflection > 0.0 && inflection < h) {
+                    double rate = b + 2.0 * c * inflection + 3.0 * d * inflection * inflection;
+                    if (rate > maxRate) {
+                        maxRate = rate;
+                        maxRateTime = x1 + inflection;
+                    }
+                }
+            }
+        }
+
+        if (numberOfSegments > 0) {
+            events.add(new ThermalEvent(coreIdx, EventType.MAX_HEATING_RATE, maxRateTime, maxRate));
+        }
+
+        return events;
+    }
+
+    /**
+     * Evaluate S(t) = a + b t + c t^2 + d t^3 using Horner's method.
+     *
+     * @param a constant coefficient
+     * @param b linear coefficient
+     * @param c quadratic coefficient
+     * @param d cubic coefficient
+     * @param t offset from the start of the segment
+     * @return S(t)
+     */
+    private static double evaluate(double a, double b, double c, double d, double t) {
+        return a + t * (b + t * (c + t * d));
+    }
+
+    /**
+     * Locate the root of a + b t + c t^2 + d t^3 between left and right,
+     * assuming the polynomial is monotone there and changes sign.
+     *
+     * @param a constant coefficient
+     * @param b linear coefficient
+     * @param c quadratic coefficient
+     * @param d cubic coefficient
+     * @param left start of the bracket
+     * @param right end of the bracket
+     * @param leftNegative whether the polynomial is negative at left
+     * @return the root
+     */
+    private static double bisect(double a, double b, double c, double d,
+                                 double left, double right, boolean leftNegative) {
+
+        for (int step = 0; step < BISECTION_STEPS; step++) {
+            double middle = (left + right) / 2.0;
+            if ((evaluate(a, b, c, d, middle) < 0.0) == leftNegative) {
+                left = middle;
+            }
+            else {
+                right = middle;
+            }
+        }
+
+        return (left + right) / 2.0;
+    }
+
+    /**
+     * Find the real roots of qa t^2 + qb t + qc, in increasing order. Falls
+     * back to the linear case when qa is zero.
+     *
+     * @param qa quadratic coefficient
+     * @param qb linear coefficient
+     * @param qc constant coefficient
+     * @return the real roots (zero, one or two of them)
+     */
+    private static double[] quadraticRoots(double qa, double qb, double qc) {
+        if (qa == 0.0) {
+            if (qb == 0.0) {
+                return new double[0];
+            }
+            return new double[]{-qc / qb};
+        }
+
+        double discriminant = qb * qb - 4.0 * qa * qc;
+        if (discriminant < 0.0) {
+            return new double[0];
+        }
+
+        // Numerically stable form avoids cancellation between qb and the root
+        double q = -0.5 * (qb + Math.copySign(Math.sqrt(discriminant), qb));
+        double r1 = q / qa;
+        double r2 = (q != 0.0) ? qc / q : r1;
+
+        return (r1 <= r2) ? new double[]{r1, r2} : new double[]{r2, r1};
+    }
+}
@@ -0,0 +1,74 @@
+package edu.odu.cs.cs417;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sample data and golden-file helpers shared by the output tests. The
+ * sample data is sample_input.txt, already split into times and
+ * [core][time] readings.
+ */
+final class GoldenFiles
+{
+    /**
+     * Time steps of sample_input.txt (30 second steps).
+     */
+    static final int[] TIMES = {0, 30, 60, 90, 120};
+
+    /**
+     * Readings of sample_input.txt as [core][time].
+     */
+    static final double[][] CORE_READINGS = {
+        {61.0, 80.0, 62.0, 83.0, 68.0},
+        {63.0, 81.0, 63.0, 82.0, 69.0},
+        {50.0, 68.0, 52.0, 70.0, 58.0},
+        {58.0, 77.0, 60.0, 79.0, 65.0}
+    };
+
+    private GoldenFiles()
+    {
+    }
+
+    /**
+     * Read an output file written to the working directory.
+     *
+     * @param filename name of the file (e.g., core0.txt)
+     *
+     * @return the lines of the file
+     */
+    static List<String> readOutput(String filename)
+        throws IOException
+    {
+        return Files.readAllLines(Paths.get(filename), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a golden file from src/test/resources/golden.
+     *
+     * @param method output directory (piecewise, least-squares or cubic-spline)
+     * @param filename name of the file (e.g., core0.txt)
+     *
+     * @return the lines of the file
+     */
+    static List<String> readGolden(String method, String filename)
+        throws IOException
+    {
+        String resource = "/golden/" + method + "/" + filename;
+
+        try (InputStream in = GoldenFiles.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing golden file " + resource);
+            }
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
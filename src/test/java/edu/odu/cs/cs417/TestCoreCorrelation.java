@@ -0,0 +1,77 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the tiled CoreCorrelation matrices against a direct two-pass
+ * computation, across tile and block boundaries, and the handling of
+ * cores whose readings never change.
+ */
+public class TestCoreCorrelation
+{
+    // 40 cores and 3000 rows span several tiles and blocks
+    private static final int ROWS = 3_000;
+    private static final int CORES = 40;
+
+    @Test
+    public void testMatchesTwoPassComputation()
+    {
+        double[][] readings = TraceGenerator.readings(ROWS, CORES);
+
+        CoreCorrelation.CorrelationMatrices matrices = CoreCorrelation.computeCorrelationMatrices(readings);
+
+        double[] means = new double[CORES];
+        for (int core = 0; core < CORES; core++) {
+            means[core] = Arrays.stream(readings[core]).sum() / ROWS;
+        }
+        for (int ci = 0; ci < CORES; ci++) {
+            for (int cj = 0; cj < CORES; cj++) {
+                double cov = 0.0;
+                double varI = 0.0;
+                double varJ = 0.0;
+                for (int r = 0; r < ROWS; r++) {
+                    double dx = readings[ci][r] - means[ci];
+                    double dy = readings[cj][r] - means[cj];
+                    cov += dx * dy;
+                    varI += dx * dx;
+                    varJ += dy * dy;
+                }
+
+                assertThat("covariance " + ci + "," + cj,
+                           matrices.covariance[ci][cj], closeTo(cov / (ROWS - 1), 1e-9));
+                assertThat("correlation " + ci + "," + cj,
+                           matrices.correlation[ci][cj], closeTo(cov / Math.sqrt(varI * varJ), 1e-9));
+            }
+        }
+    }
+
+    @Test
+    public void testZeroVarianceCore()
+        throws IOException
+    {
+        double[][] readings = TraceGenerator.readings(ROWS, 3);
+        Arrays.fill(readings[1], 55.0);
+
+        CoreCorrelation.CorrelationMatrices matrices = CoreCorrelation.computeCorrelationMatrices(readings);
+
+        assertThat(matrices.covariance[1][1], equalTo(0.0));
+        assertThat(matrices.correlation[1][1], equalTo(1.0));
+        for (int other : new int[]{0, 2}) {
+            assertThat(matrices.correlation[1][other], equalTo(0.0));
+            assertThat(matrices.correlation[other][1], equalTo(0.0));
+            assertThat(matrices.correlation[other][other], equalTo(1.0));
+        }
+        assertThat(Double.isNaN(matrices.correlation[0][2]), equalTo(false));
+
+        CoreCorrelation.computeCorrelation(readings);
+        assertThat(GoldenFiles.readOutput("correlation.txt").get(0),
+                   equalTo("# zero variance (correlation written as 0 with other cores): 1"));
+    }
+}
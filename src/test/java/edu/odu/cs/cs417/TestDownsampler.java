@@ -0,0 +1,99 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the points kept by Downsampler's Largest-Triangle-Three-Buckets
+ * selection, and that the piecewise interpolation uses only those points.
+ */
+public class TestDownsampler
+{
+    private static final int ROWS = 10_000;
+
+    @Test
+    public void testKeepsEndpointsAndOnePointPerBucket()
+    {
+        int[] times = TraceGenerator.times(ROWS);
+        double[] temps = TraceGenerator.readings(ROWS, 1)[0];
+
+        for (int target : new int[]{3, 4, 500, ROWS - 1}) {
+            int[] kept = Downsampler.largestTriangleThreeBuckets(times, temps, target);
+
+            assertThat("target " + target, kept.length, equalTo(target));
+            assertThat(kept[0], equalTo(0));
+            assertThat(kept[kept.length - 1], equalTo(ROWS - 1));
+            for (int i = 1; i < kept.length; i++) {
+                assertThat("target " + target + ", point " + i, kept[i], greaterThan(kept[i - 1]));
+            }
+        }
+    }
+
+    @Test
+    public void testKeepsSpikes()
+    {
+        int[] times = TraceGenerator.times(ROWS);
+        double[] temps = new double[ROWS];
+        Arrays.fill(temps, 40.0);
+        int[] spikes = {1234, 5000, 8765};
+        for (int spike : spikes) {
+            temps[spike] = 95.0;
+        }
+
+        int[] kept = Downsampler.largestTriangleThreeBuckets(times, temps, 100);
+
+        for (int spike : spikes) {
+            assertThat("spike at " + spike, Arrays.binarySearch(kept, spike) >= 0, equalTo(true));
+        }
+    }
+
+    @Test
+    public void testShortTraceIsKept()
+    {
+        Downsampler.DownsampledCore[] cores =
+            Downsampler.downsample(GoldenFiles.TIMES, GoldenFiles.CORE_READINGS, 500);
+
+        for (int core = 0; core < cores.length; core++) {
+            assertThat(cores[core].times, equalTo(GoldenFiles.TIMES));
+            assertThat(cores[core].readings, equalTo(GoldenFiles.CORE_READINGS[core]));
+        }
+    }
+
+    @Test
+    public void testInterpolationUsesKeptPoints()
+        throws IOException
+    {
+        int[] times = TraceGenerator.times(ROWS);
+        double[][] readings = TraceGenerator.readings(ROWS, 2);
+
+        Downsampler.DownsampledCore[] cores = Downsampler.downsample(times, readings, 200);
+        PiecewiseInterpolator.computeInterpolation(cores);
+
+        for (int core = 0; core < cores.length; core++) {
+            List<String> lines = GoldenFiles.readOutput("core" + core + ".txt");
+            assertThat(lines.size(), equalTo(199));
+            for (int i = 0; i < lines.size(); i++) {
+                String[] range = lines.get(i).split(";")[0].split("<= x <=");
+                assertThat("core " + core + ", segment " + i,
+                           Integer.parseInt(range[0].trim()), equalTo(cores[core].times[i]));
+                assertThat("core " + core + ", segment " + i,
+                           Integer.parseInt(range[1].trim()), equalTo(cores[core].times[i + 1]));
+            }
+        }
+    }
+
+    @Test
+    public void testTargetMustBeAtLeastThree()
+    {
+        assertThrows(IllegalArgumentException.class, () ->
+            Downsampler.largestTriangleThreeBuckets(GoldenFiles.TIMES, GoldenFiles.CORE_READINGS[0], 2));
+    }
+}
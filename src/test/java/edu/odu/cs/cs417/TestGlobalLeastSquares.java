@@ -0,0 +1,30 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pins the core0.txt ... core3.txt output of GlobalLeastSquares
+ * for sample_input.txt against the golden files in
+ * src/test/resources/golden/least-squares.
+ */
+public class TestGlobalLeastSquares
+{
+    @Test
+    public void testComputeGlobalLeastSquaresMatchesGolden()
+        throws IOException
+    {
+        GlobalLeastSquares.computeGlobalLeastSquares(GoldenFiles.TIMES, GoldenFiles.CORE_READINGS);
+
+        for (int coreIdx = 0; coreIdx < GoldenFiles.CORE_READINGS.length; coreIdx++) {
+            String filename = "core" + coreIdx + ".txt";
+
+            assertThat(filename, GoldenFiles.readOutput(filename),
+                       equalTo(GoldenFiles.readGolden("least-squares", filename)));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throughput and allocation regression gate for the parser and solvers.
+ * Run with "./gradlew perfTest" (excluded from "./gradlew test").
+ *
+ * Each hot path runs on a generated trace of ROWS readings. It is warmed up
+ * for WARMUP_NANOS, then timed REPEATS times. Each timed run repeats the
+ * workload for at least MIN_TIMED_NANOS, so JIT and scheduler noise average
+ * out. The best run is compared against src/test/resources/perf-baseline.properties:
+ * <ul>
+ *   <li> relative throughput (rows per second divided by the rows per second
+ *        of a fixed reference kernel timed the same way, just before and
+ *        just after it)
+ *        may not drop below the baseline by more than throughputTolerance.
+ *        Dividing by the reference kernel takes out the speed of the machine,
+ *        so the baseline holds on other hardware
+ *   </li>
+ *   <li> bytes allocated per row may not exceed the baseline by more than
+ *        allocationTolerance (plus allocationSlack bytes per row, so that
+ *        workloads which barely allocate are not flagged for a few bytes)
+ *   </li>
+ * </ul>
+ * The measured values are written to perf-results.properties in the test
+ * working directory so the baseline can be refreshed by copying them over
+ * (the absolute rows per second are written too, for information only).
+ */
+@Tag("perf")
+public class TestPerformanceRegression
+{
+    private static final int ROWS = 200_000;
+    private static final int CORES = 8;
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MIN_TIMED_NANOS = 200_000_000L;
+    private static final int REPEATS = 5;
+
+    private static Properties baseline;
+    private static Properties results;
+
+    private static String rawInput;
+    private static int[] times;
+    private static double[][] coreReadings;
+
+    /**
+     * Keeps the reference kernel's result alive so the JIT cannot drop it.
+     */
+    private static volatile double sink;
+
+    /**
+     * A hot path to measure.
+     */
+    private interface Workload
+    {
+        void run() throws Exception;
+    }
+
+    @BeforeAll
+    public static void setUp()
+        throws IOException
+    {
+        baseline = new Properties();
+        try (InputStream in = TestPerformanceRegression.class
+                .getResourceAsStream("/perf-baseline.properties")) {
+            baseline.load(in);
+        }
+        results = new Properties();
+
+        // Deterministic trace: slow drift plus noise, one decimal like real input
+        Random random = new Random(417);
+        StringBuilder bld = new StringBuilder(ROWS * CORES * 6);
+        times = new int[ROWS];
+        coreReadings = new double[CORES][ROWS];
+
+        for (int row = 0; row < ROWS; row++) {
+            times[row] = row * 30;
+            for (int core = 0; core < CORES; core++) {
+                double temp = Math.round(10.0 * (60.0 + 15.0 * Math.sin(row / 500.0 + core)
+                                                 + 5.0 * random.nextDouble())) / 10.0;
+                coreReadings[core][row] = temp;
+                bld.append(String.format(Locale.US, "%.1f", temp)).append(core < CORES - 1 ? " " : "\n");
+            }
+        }
+        rawInput = bld.toString();
+    }
+
+    @AfterAll
+    public static void writeResults()
+        throws IOException
+    {
+        try (OutputStream out = new FileOutputStream("perf-results.properties")) {
+            results.store(out, "Measured by TestPerformanceRegression (" + ROWS + " rows x " + CORES + " cores)");
+        }
+    }
+
+    @Test
+    public void testParseRawTemps()
+        throws Exception
+    {
+        checkAgainstBaseline("parser", () ->
+            TemperatureParser.parseRawTemps(new BufferedReader(new StringReader(rawInput))));
+    }
+
+    @Test
+    public void testLinearLeastSquares()
+        throws Exception
+    {
+        checkAgainstBaseline("linearLeastSquares", () -> {
+            for (int core = 0; core < CORES; core++) {
+                GlobalLeastSquares.solveLeastSquaresMatrix(times, coreReadings[core]);
+            }
+        });
+    }
+
+    @Test
+    public void testPolynomialLeastSquares()
+        throws Exception
+    {
+        checkAgainstBaseline("polynomialLeastSquares", () ->
+            PolynomialLeastSquares.fitAllCores(times, coreReadings, 4));
+    }
+
+    @Test
+    public void testCubicSplineCoefficients()
+        throws Exception
+    {
+        checkAgainstBaseline("cubicSpline", () -> {
+            for (int core = 0; core < CORES; core++) {
+                CubicSplineInterpolator.computeSegmentCoefficients(times, coreReadings[core]);
+            }
+        });
+    }
+
+    /**
+     * Reference kernel: a fixed amount of floating point work per row, used
+     * to measure how fast this machine is right now.
+     */
+    private static void referenceKernel()
+    {
+        double sum = 0.0;
+        for (double[] temps : coreReadings) {
+            for (double temp : temps) {
+                sum += ((temp * 0.5 + 1.0) * temp - 2.0) * temp;
+            }
+        }
+        sink = sum;
+    }
+
+    /**
+     * Measure a workload and compare it with its baseline entries
+     * (name.relativeThroughput and name.bytesPerRow).
+     *
+     * @param name prefix of the baseline entries
+     * @param workload hot path to measure (on the calling thread)
+     */
+    private static void checkAgainstBaseline(String name, Workload workload)
+        throws Exception
+    {
+        // Time the reference on both sides of the workload, so a slow spell
+        // of the machine during either one does not skew the ratio
+        double[] referenceBefore = measure(TestPerformanceRegression::referenceKernel);
+        double[] measured = measure(workload);
+        double[] referenceAfter = measure(TestPerformanceRegression::referenceKernel);
+        double referenceRowsPerSecond = Math.max(referenceBefore[0], referenceAfter[0]);
+
+        double rowsPerSecond = measured[0];
+        double bytesPerRow = measured[1];
+        double relativeThroughput = rowsPerSecond / referenceRowsPerSecond;
+        results.setProperty(name + ".relativeThroughput", String.format(Locale.US, "%.5f", relativeThroughput));
+        results.setProperty(name + ".bytesPerRow", String.format(Locale.US, "%.1f", bytesPerRow));
+        results.setProperty(name + ".rowsPerSecond", String.format(Locale.US, "%.0f", rowsPerSecond));
+
+        double throughputTolerance = Double.parseDouble(baseline.getProperty("throughputTolerance"));
+        double allocationTolerance = Double.parseDouble(baseline.getProperty("allocationTolerance"));
+        double allocationSlack = Double.parseDouble(baseline.getProperty("allocationSlack"));
+        double baselineRelativeThroughput = Double.parseDouble(baseline.getProperty(name + ".relativeThroughput"));
+        double baselineBytesPerRow = Double.parseDouble(baseline.getProperty(name + ".bytesPerRow"));
+
+        assertThat(name + " throughput relative to the reference kernel", relativeThroughput,
+                   greaterThanOrEqualTo(baselineRelativeThroughput * (1.0 - throughputTolerance)));
+        assertThat(name + " bytes allocated per row", bytesPerRow,
+                   lessThanOrEqualTo(baselineBytesPerRow * (1.0 + allocationTolerance) + allocationSlack));
+    }
+
+    /**
+     * Warm up a workload, then time it REPEATS times. Each timed run
+     * repeats the workload until at least MIN_TIMED_NANOS have passed.
+     *
+     * @param workload hot path to measure (on the calling thread)
+     * @return {best rows per second, least bytes allocated per row}
+     */
+    private static double[] measure(Workload workload)
+        throws Exception
+    {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long warmupStart = System.nanoTime();
+        do {
+            workload.run();
+        } while (System.nanoTime() - warmupStart < WARMUP_NANOS);
+
+        double bestRowsPerSecond = 0.0;
+        double bestBytesPerRow = Double.MAX_VALUE;
+        for (int i = 0; i < REPEATS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            long passes = 0;
+
+            long elapsed;
+            do {
+                workload.run();
+                passes++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MIN_TIMED_NANOS);
+
+            long allocated = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            bestRowsPerSecond = Math.max(bestRowsPerSecond, passes * ROWS / (elapsed / 1e9));
+            bestBytesPerRow = Math.min(bestBytesPerRow, (double) allocated / (passes * ROWS));
+        }
+
+        return new double[]{bestRowsPerSecond, bestBytesPerRow};
+    }
+}
@@ -0,0 +1,80 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pins the core0.txt ... core3.txt output of PiecewiseInterpolator
+ * for sample_input.txt against the golden files in
+ * src/test/resources/golden/piecewise, and checks the error bound of the
+ * adaptive segments.
+ */
+public class TestPiecewiseInterpolator
+{
+    @Test
+    public void testComputeInterpolationMatchesGolden()
+        throws IOException
+    {
+        PiecewiseInterpolator.computeInterpolation(GoldenFiles.TIMES, GoldenFiles.CORE_READINGS);
+
+        for (int coreIdx = 0; coreIdx < GoldenFiles.CORE_READINGS.length; coreIdx++) {
+            String filename = "core" + coreIdx + ".txt";
+
+            assertThat(filename, GoldenFiles.readOutput(filename),
+                       equalTo(GoldenFiles.readGolden("piecewise", filename)));
+        }
+    }
+
+    @Test
+    public void testAdaptiveInterpolationStaysWithinMaxError()
+        throws IOException
+    {
+        final double maxError = 2.0;
+        final int rows = 10_000;
+        int[] times = TraceGenerator.times(rows);
+        double[][] readings = TraceGenerator.readings(rows, 2);
+
+        PiecewiseInterpolator.computeAdaptiveInterpolation(times, readings, maxError);
+
+        Pattern segment = Pattern.compile(
+            "\\s*(\\d+) <= x <=\\s*(\\d+) ; y = (\\S+) \\+ (\\S+)\\(x-(\\d+)\\) ; adaptive-interpolation");
+
+        for (int coreIdx = 0; coreIdx < readings.length; coreIdx++) {
+            List<String> lines = GoldenFiles.readOutput("core" + coreIdx + ".txt");
+            assertThat("segments", lines.size(), lessThan(rows / 4));
+
+            // Read the segments back and check every reading they cover,
+            // including the shared reading at each segment's start
+            int next = 0;
+            for (String line : lines) {
+                Matcher match = segment.matcher(line);
+                assertThat(line, match.matches(), equalTo(true));
+
+                int x0 = Integer.parseInt(match.group(1));
+                int x1 = Integer.parseInt(match.group(2));
+                double y0 = Double.parseDouble(match.group(3));
+                double slope = Double.parseDouble(match.group(4));
+
+                int row = Math.max(next - 1, 0);
+                assertThat("segments are connected", x0, equalTo(times[row]));
+
+                for (; row < rows && times[row] <= x1; row++) {
+                    double y = y0 + slope * (times[row] - x0);
+                    assertThat("x = " + times[row], Math.abs(y - readings[coreIdx][row]),
+                               lessThanOrEqualTo(maxError + 1e-9));
+                }
+                next = row;
+            }
+            assertThat("every reading is covered", next, equalTo(rows));
+        }
+    }
+}
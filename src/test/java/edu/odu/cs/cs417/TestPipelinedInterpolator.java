@@ -0,0 +1,91 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that PipelinedInterpolator writes exactly what
+ * PiecewiseInterpolator writes, for batch sizes that do and do not divide
+ * the number of readings, and that stage failures reach the caller.
+ */
+public class TestPipelinedInterpolator
+{
+    private static final int ROWS = 10_000;
+    private static final int CORES = 3;
+
+    @Test
+    public void testPipelineMatchesSerialInterpolation()
+        throws IOException
+    {
+        double[][] readings = TraceGenerator.readings(ROWS, CORES);
+        String input = TraceGenerator.formatInput(readings);
+
+        PiecewiseInterpolator.computeInterpolation(TraceGenerator.times(ROWS), readings);
+        List<List<String>> expected = readCoreFiles();
+
+        for (int batchSize : new int[]{1, 7, 4096, ROWS, ROWS + 1}) {
+            PipelinedInterpolator.computeInterpolation(
+                new BufferedReader(new StringReader(input)), 30, batchSize, 2);
+
+            assertThat("batch size " + batchSize, readCoreFiles(), equalTo(expected));
+        }
+    }
+
+    @Test
+    public void testMalformedInputIsReported()
+    {
+        String input = "61.0 63.0\n80.0 81.0\n62.0 x\n83.0 82.0\n";
+
+        assertThrows(IOException.class, () ->
+            PipelinedInterpolator.computeInterpolation(
+                new BufferedReader(new StringReader(input)), 30, 1, 1));
+    }
+
+    @Test
+    public void testRaggedInputIsReported()
+    {
+        // A wider row in the middle, a narrower row, and a wider first row
+        String[] inputs = {
+            "61.0 63.0\n80.0 81.0 79.0\n62.0 63.0\n",
+            "61.0 63.0\n80.0 81.0\n62.0\n",
+            "61.0 63.0 60.0\n80.0 81.0\n62.0 63.0\n"
+        };
+
+        for (String input : inputs) {
+            for (int batchSize : new int[]{1, 2, PipelinedInterpolator.DEFAULT_BATCH_SIZE}) {
+                IOException error = assertThrows(IOException.class, () ->
+                    PipelinedInterpolator.computeInterpolation(
+                        new BufferedReader(new StringReader(input)), 30, batchSize, 1));
+                assertThat(error.getMessage(), startsWith("Expected "));
+            }
+        }
+    }
+
+    @Test
+    public void testBatchSizeMustBePositive()
+    {
+        assertThrows(IllegalArgumentException.class, () ->
+            PipelinedInterpolator.computeInterpolation(
+                new BufferedReader(new StringReader("61.0 63.0\n")), 30, 0, 1));
+    }
+
+    private static List<List<String>> readCoreFiles()
+        throws IOException
+    {
+        List<List<String>> files = new ArrayList<>();
+        for (int coreIdx = 0; coreIdx < CORES; coreIdx++) {
+            files.add(GoldenFiles.readOutput("core" + coreIdx + ".txt"));
+        }
+        return files;
+    }
+}
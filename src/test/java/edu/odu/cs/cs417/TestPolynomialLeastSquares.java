@@ -0,0 +1,65 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks PolynomialLeastSquares against the linear fit of
+ * GlobalLeastSquares and against polynomials it should recover exactly.
+ */
+public class TestPolynomialLeastSquares
+{
+    private static final int ROWS = 10_000;
+
+    @Test
+    public void testDegreeOneMatchesLinearFit()
+    {
+        int[] times = TraceGenerator.times(ROWS);
+        double[][] readings = TraceGenerator.readings(ROWS, 4);
+
+        PolynomialLeastSquares.PolynomialFit[] fits = PolynomialLeastSquares.fitAllCores(times, readings, 1);
+
+        for (int core = 0; core < readings.length; core++) {
+            double[] line = GlobalLeastSquares.solveLeastSquaresMatrix(times, readings[core]);
+            for (int x : new int[]{times[0], times[ROWS / 3], times[ROWS - 1]}) {
+                assertThat("core " + core + " at " + x,
+                           fits[core].evaluate(x), closeTo(line[0] + line[1] * x, 1e-6));
+            }
+        }
+    }
+
+    @Test
+    public void testRecoversExactPolynomial()
+    {
+        int[] times = TraceGenerator.times(ROWS);
+        double[][] readings = new double[2][ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            double hours = times[i] / 3600.0;
+            readings[0][i] = 45.0 + 2.0 * hours - 0.5 * hours * hours;
+            readings[1][i] = 60.0 - 3.0 * hours + 0.25 * hours * hours + 0.01 * hours * hours * hours;
+        }
+
+        for (int degree : new int[]{3, 6}) {
+            PolynomialLeastSquares.PolynomialFit[] fits =
+                PolynomialLeastSquares.fitAllCores(times, readings, degree);
+
+            for (int core = 0; core < readings.length; core++) {
+                for (int i = 0; i < ROWS; i += 997) {
+                    assertThat("degree " + degree + ", core " + core + " at " + times[i],
+                               fits[core].evaluate(times[i]), closeTo(readings[core][i], 1e-6));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDegreeNeedsEnoughReadings()
+    {
+        assertThrows(IllegalArgumentException.class, () ->
+            PolynomialLeastSquares.fitAllCores(GoldenFiles.TIMES, GoldenFiles.CORE_READINGS,
+                                               GoldenFiles.TIMES.length));
+    }
+}
@@ -0,0 +1,59 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that StreamingSplineInterpolator writes exactly the cubic-spline
+ * lines of CubicSplineInterpolator, including traces longer than one
+ * block of the reverse pass, and that bad input reaches the caller.
+ */
+public class TestStreamingSplineInterpolator
+{
+    private static final int CORES = 4;
+
+    @Test
+    public void testStreamingMatchesInMemorySpline()
+        throws IOException
+    {
+        // 10,000 rows spans several 4096-row blocks; 2 rows is the smallest spline
+        for (int rows : new int[]{2, 3, 10_000}) {
+            double[][] readings = TraceGenerator.readings(rows, CORES);
+
+            CubicSplineInterpolator.computeCubicSpline(TraceGenerator.times(rows), readings);
+            String[][] expected = new String[CORES][];
+            for (int coreIdx = 0; coreIdx < CORES; coreIdx++) {
+                expected[coreIdx] = GoldenFiles.readOutput("core" + coreIdx + ".txt").stream()
+                    .filter(line -> line.endsWith("; cubic-spline"))
+                    .toArray(String[]::new);
+            }
+
+            StreamingSplineInterpolator.computeCubicSpline(
+                new BufferedReader(new StringReader(TraceGenerator.formatInput(readings))), 30);
+
+            for (int coreIdx = 0; coreIdx < CORES; coreIdx++) {
+                List<String> actual = GoldenFiles.readOutput("core" + coreIdx + ".txt");
+                assertThat(rows + " rows, core " + coreIdx,
+                           actual,
+                           equalTo(List.of(expected[coreIdx])));
+            }
+        }
+    }
+
+    @Test
+    public void testMalformedInputIsReported()
+    {
+        String input = "61.0 63.0\n80.0 81.0\n62.0 x\n83.0 82.0\n";
+
+        assertThrows(IOException.class, () ->
+            StreamingSplineInterpolator.computeCubicSpline(new BufferedReader(new StringReader(input)), 30));
+    }
+}
@@ -0,0 +1,101 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that TemperatureParser.openTemps reads gzip-compressed input
+ * exactly like plain text, with and without the decompression thread, and
+ * that a corrupt gzip file is reported instead of being cut short.
+ */
+public class TestTemperatureParser
+{
+    private static final int ROWS = 10_000;
+    private static final int CORES = 4;
+
+    @Test
+    public void testGzipInputMatchesPlainText()
+        throws IOException
+    {
+        byte[] input = TraceGenerator.formatInput(TraceGenerator.readings(ROWS, CORES))
+            .getBytes(StandardCharsets.US_ASCII);
+        File plain = writeTempFile(input, false);
+        File compressed = writeTempFile(input, true);
+
+        List<String> expected = parse(plain, false);
+        assertThat(expected.size(), equalTo(ROWS));
+
+        assertThat("plain text, decompression thread", parse(plain, true), equalTo(expected));
+        assertThat("gzip", parse(compressed, false), equalTo(expected));
+        assertThat("gzip, decompression thread", parse(compressed, true), equalTo(expected));
+    }
+
+    @Test
+    public void testTruncatedGzipIsReported()
+        throws IOException
+    {
+        byte[] input = TraceGenerator.formatInput(TraceGenerator.readings(ROWS, CORES))
+            .getBytes(StandardCharsets.US_ASCII);
+        File compressed = writeTempFile(input, true);
+        byte[] bytes = Files.readAllBytes(compressed.toPath());
+        File truncated = writeTempFile(Arrays.copyOf(bytes, bytes.length / 2), false);
+
+        for (boolean decompressOnThread : new boolean[]{false, true}) {
+            assertThrows(UncheckedIOException.class, () -> parse(truncated, decompressOnThread),
+                         "decompression thread " + decompressOnThread);
+        }
+    }
+
+    /**
+     * Parse a file with openTemps and parseRawTemps.
+     *
+     * @param inputFile file to parse
+     * @param decompressOnThread decompress gzip input on a separate thread
+     * @return the parsed readings, one string per line
+     */
+    private static List<String> parse(File inputFile, boolean decompressOnThread)
+        throws IOException
+    {
+        try (BufferedReader reader = TemperatureParser.openTemps(inputFile, decompressOnThread)) {
+            return TemperatureParser.parseRawTemps(reader).stream()
+                .map(TemperatureParser.CoreTempReading::toString)
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Write bytes to a temporary file that is deleted when the tests end.
+     *
+     * @param contents bytes to write
+     * @param gzip compress the bytes with gzip
+     * @return the file
+     */
+    private static File writeTempFile(byte[] contents, boolean gzip)
+        throws IOException
+    {
+        File file = File.createTempFile("temps", gzip ? ".txt.gz" : ".txt");
+        file.deleteOnExit();
+
+        try (OutputStream out = gzip ? new GZIPOutputStream(new FileOutputStream(file))
+                                     : new FileOutputStream(file)) {
+            out.write(contents);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,202 @@
+package edu.odu.cs.cs417;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the events found by ThermalEventDetector against a symmetric
+ * trace with known events, against dense sampling of the splines, and on
+ * thresholds that equal a reading.
+ */
+public class TestThermalEventDetector
+{
+    private static final int SAMPLES_PER_SEGMENT = 1000;
+
+    @Test
+    public void testSymmetricPeak()
+    {
+        int[] times = {0, 30, 60, 90, 120};
+        double[][] readings = {{50.0, 60.0, 70.0, 60.0, 50.0}};
+
+        List<ThermalEventDetector.ThermalEvent> events = ThermalEventDetector.detectEvents(times, readings, 65.0);
+
+        assertThat(events.size(), equalTo(4));
+        ThermalEventDetector.ThermalEvent up = events.get(0);
+        ThermalEventDetector.ThermalEvent peak = events.get(1);
+        ThermalEventDetector.ThermalEvent down = events.get(2);
+
+        assertThat(up.type, equalTo(ThermalEventDetector.EventType.THRESHOLD_UP));
+        assertThat(peak.type, equalTo(ThermalEventDetector.EventType.LOCAL_MAXIMUM));
+        assertThat(down.type, equalTo(ThermalEventDetector.EventType.THRESHOLD_DOWN));
+        assertThat(events.get(3).type, equalTo(ThermalEventDetector.EventType.MAX_HEATING_RATE));
+
+        // The spline is symmetric about x = 60
+        assertThat(peak.time, closeTo(60.0, 1e-9));
+        assertThat(peak.value, closeTo(70.0, 1e-9));
+        assertThat(up.time + down.time, closeTo(120.0, 1e-6));
+        assertThat(up.time, greaterThanOrEqualTo(30.0));
+        assertThat(up.time, lessThanOrEqualTo(60.0));
+    }
+
+    @Test
+    public void testEventsMatchDenseSampling()
+    {
+        int rows = 2_000;
+        int[] times = TraceGenerator.times(rows);
+        double[][] readings = TraceGenerator.readings(rows, 3);
+        // Off the one-decimal grid, so sampling never lands exactly on the
+        // threshold (testThresholdOnAReading covers that case)
+        double threshold = 60.05;
+
+        List<ThermalEventDetector.ThermalEvent> events =
+            ThermalEventDetector.detectEvents(times, readings, threshold);
+
+        for (int core = 0; core < readings.length; core++) {
+            double[][] coefficients = CubicSplineInterpolator.computeSegmentCoefficients(times, readings[core]);
+
+            int crossings = 0;
+            double maxRate = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i + 1 < rows; i++) {
+                double h = times[i + 1] - times[i];
+                boolean above = readings[core][i] >= threshold;
+                for (int s = 0; s <= SAMPLES_PER_SEGMENT; s++) {
+                    double t = h * s / SAMPLES_PER_SEGMENT;
+                    if ((evaluate(coefficients, i, t) >= threshold) != above) {
+                        above = !above;
+                        crossings++;
+                    }
+                    maxRate = Math.max(maxRate, rate(coefficients, i, t));
+                }
+            }
+
+            int detectedCrossings = 0;
+            ThermalEventDetector.ThermalEvent last = null;
+            for (ThermalEventDetector.ThermalEvent event : events) {
+                if (event.core != core) {
+                    continue;
+                }
+                if (event.type == ThermalEventDetector.EventType.THRESHOLD_UP
+                    || event.type == ThermalEventDetector.EventType.THRESHOLD_DOWN) {
+                    detectedCrossings++;
+                    int segment = Math.min((int) (event.time / 30), rows - 2);
+                    assertThat("core " + core + " crossing at " + event.time,
+                               evaluate(coefficients, segment, event.time - times[segment]),
+                               closeTo(threshold, 1e-6));
+                }
+                last = event;
+            }
+
+            assertThat("core " + core + " crossings", detectedCrossings, equalTo(crossings));
+            assertThat(last.type, equalTo(ThermalEventDetector.EventType.MAX_HEATING_RATE));
+            // Sampling can only miss the true maximum, never exceed it
+            assertThat(last.value, greaterThanOrEqualTo(maxRate - 1e-12));
+            assertThat(last.value, lessThanOrEqualTo(maxRate + 1e-6));
+        }
+    }
+
+    @Test
+    public void testThresholdOnAReading()
+    {
+        int[] times = {0, 30, 60, 90};
+        double[][] readings = {{60.0, 83.0, 64.0, 87.0}};
+
+        // S(h) of the second segment rounds to just below 64 while the third
+        // segment starts at exactly 64 and then dips below it
+        List<ThermalEventDetector.ThermalEvent> events = ThermalEventDetector.detectEvents(times, readings, 64.0);
+
+        checkCrossingsAlternate(events, readings, 64.0);
+        List<ThermalEventDetector.ThermalEvent> crossings = events.stream()
+            .filter(event -> event.type == ThermalEventDetector.EventType.THRESHOLD_UP
+                             || event.type == ThermalEventDetector.EventType.THRESHOLD_DOWN)
+            .collect(Collectors.toList());
+        assertThat(crossings.size(), equalTo(3));
+        assertThat(crossings.get(1).type, equalTo(ThermalEventDetector.EventType.THRESHOLD_DOWN));
+        assertThat(crossings.get(1).time, closeTo(60.0, 1e-6));
+        assertThat(crossings.get(2).time, greaterThanOrEqualTo(60.0 + 1e-6));
+    }
+
+    @Test
+    public void testIntegerThresholdsOnIntegerReadings()
+    {
+        int rows = 20;
+        int[] times = TraceGenerator.times(rows);
+
+        // Whole-degree readings and thresholds put many crossings exactly on a reading
+        for (int trace = 0; trace < 2000; trace++) {
+            Random random = new Random(trace);
+            double[][] readings = new double[1][rows];
+            for (int i = 0; i < rows; i++) {
+                readings[0][i] = 50 + random.nextInt(41);
+            }
+            double threshold = readings[0][random.nextInt(rows)];
+
+            checkCrossingsAlternate(ThermalEventDetector.detectEvents(times, readings, threshold),
+                                    readings, threshold);
+        }
+    }
+
+    /**
+     * Check that the crossings of each core alternate between up and down,
+     * starting from the side of the threshold the first reading is on.
+     *
+     * @param events detected events
+     * @param readings readings as [core][time]
+     * @param threshold threshold used for detection
+     */
+    private static void checkCrossingsAlternate(List<ThermalEventDetector.ThermalEvent> events,
+                                                double[][] readings, double threshold)
+    {
+        for (int core = 0; core < readings.length; core++) {
+            boolean above = readings[core][0] >= threshold;
+            for (ThermalEventDetector.ThermalEvent event : events) {
+                if (event.core != core) {
+                    continue;
+                }
+                if (event.type == ThermalEventDetector.EventType.THRESHOLD_UP
+                    || event.type == ThermalEventDetector.EventType.THRESHOLD_DOWN) {
+                    assertThat(Arrays.toString(readings[core]) + ", threshold " + threshold + ", x = " + event.time,
+                               event.type,
+                               equalTo(above ? ThermalEventDetector.EventType.THRESHOLD_DOWN
+                                             : ThermalEventDetector.EventType.THRESHOLD_UP));
+                    above = !above;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluate a spline segment.
+     *
+     * @param coefficients {a, b, c, d} from computeSegmentCoefficients
+     * @param i index of the segment
+     * @param t offset from the start of the segment
+     * @return S(t)
+     */
+    private static double evaluate(double[][] coefficients, int i, double t)
+    {
+        return coefficients[0][i] + t * (coefficients[1][i] + t * (coefficients[2][i] + t * coefficients[3][i]));
+    }
+
+    /**
+     * Evaluate the derivative of a spline segment.
+     *
+     * @param coefficients {a, b, c, d} from computeSegmentCoefficients
+     * @param i index of the segment
+     * @param t offset from the start of the segment
+     * @return S'(t)
+     */
+    private static double rate(double[][] coefficients, int i, double t)
+    {
+        return coefficients[1][i] + t * (2.0 * coefficients[2][i] + t * 3.0 * coefficients[3][i]);
+    }
+}
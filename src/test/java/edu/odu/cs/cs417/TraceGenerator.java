@@ -0,0 +1,95 @@
+package edu.odu.cs.cs417;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generated temperature traces for the bound and equivalence tests, which
+ * need more readings than sample_input.txt has. The traces mimic real
+ * input: slow drift, noise and flat stretches, rounded to one decimal.
+ */
+final class TraceGenerator
+{
+    /**
+     * Seed used when a test needs one trace and does not care which.
+     */
+    private static final long DEFAULT_SEED = 1L;
+
+    private TraceGenerator()
+    {
+    }
+
+    /**
+     * Generate time steps 0, 30, 60, ... like TemperatureParser.
+     *
+     * @param rows number of readings
+     *
+     * @return the time steps
+     */
+    static int[] times(int rows)
+    {
+        int[] times = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            times[row] = row * 30;
+        }
+        return times;
+    }
+
+    /**
+     * Generate a trace with the default seed.
+     *
+     * @param rows number of readings
+     * @param cores number of cores
+     *
+     * @return readings as [core][time]
+     */
+    static double[][] readings(int rows, int cores)
+    {
+        return readings(rows, cores, DEFAULT_SEED);
+    }
+
+    /**
+     * Generate a trace. Tests that need several different traces pass
+     * different seeds.
+     *
+     * @param rows number of readings
+     * @param cores number of cores
+     * @param seed random seed
+     *
+     * @return readings as [core][time]
+     */
+    static double[][] readings(int rows, int cores, long seed)
+    {
+        Random random = new Random(seed);
+        double[][] readings = new double[cores][rows];
+
+        for (int row = 0; row < rows; row++) {
+            for (int core = 0; core < cores; core++) {
+                double drift = 15.0 * Math.sin(row / 400.0 + core);
+                double noise = (row / 1000 % 3 == 0) ? 0.0 : 4.0 * random.nextDouble();
+                readings[core][row] = Math.round(10.0 * (60.0 + drift + noise)) / 10.0;
+            }
+        }
+        return readings;
+    }
+
+    /**
+     * Format readings the way an input file stores them, one line per
+     * time step.
+     *
+     * @param readings readings as [core][time]
+     *
+     * @return the input file contents
+     */
+    static String formatInput(double[][] readings)
+    {
+        StringBuilder bld = new StringBuilder();
+        for (int row = 0; row < readings[0].length; row++) {
+            for (int core = 0; core < readings.length; core++) {
+                bld.append(String.format(Locale.US, "%.1f", readings[core][row]))
+                   .append(core < readings.length - 1 ? " " : "\n");
+            }
+        }
+        return bld.toString();
+    }
+}